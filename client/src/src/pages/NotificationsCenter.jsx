@@ -1,7 +1,7 @@
 import React, { useState, useEffect } from 'react';
 import { Bell, X, Check, AlertCircle, Info, CheckCircle, XCircle } from 'lucide-react';
 import NotificationBox from '../Components/NotificationBox';
-import { deleteNotificacion, getAllNotificaciones, toogleNotificacion,toogleAllNotificacion,deleteAllNotificacion } from '../services/notificacionService';
+import { deleteNotificacion, getAllNotificaciones, toogleNotificacion,toogleAllNotificacion,deleteAllNotificacion,suscribirNotificaciones } from '../services/notificacionService';
 
 const NotificationCenter = ({setIsOpen}) => {
   const [notifications, setNotifications] = useState([]);
@@ -21,6 +21,13 @@ const NotificationCenter = ({setIsOpen}) => {
   };
 
   fetchNotificaciones();
+
+  // Las nuevas llegan por el stream; al reconectar se recarga la lista por si se perdió alguna
+  const cerrarStream = suscribirNotificaciones(
+    (nueva) => setNotifications(prev => prev.some(n => n.id === nueva.id) ? prev : [...prev, nueva]),
+    fetchNotificaciones
+  );
+  return cerrarStream;
 }, []);
 
   
@@ -96,4 +96,67 @@ export const toogleAllNotificacion = async () => {
     throw error;
   }
 };
-export default {getAllNotificaciones,toogleNotificacion,deleteNotificacion,toogleAllNotificacion,deleteAllNotificacion};
\ No newline at end of file
+// EventSource no puede enviar la cabecera Authorization: se pide un token corto que solo abre el stream
+const getStreamToken = async () => {
+  const response = await fetch(`${API_URL}/stream/token`, {
+    headers: getAuthHeaders(),
+    method: 'POST'
+  });
+  if (!response.ok) {
+    throw new Error('Error al obtener el token de notificaciones');
+  }
+  const data = await response.json();
+  return data.token;
+};
+
+const REINTENTO_STREAM_MS = 5000;
+
+// Abre el stream de notificaciones en tiempo real. onNotificacion recibe cada notificación nueva
+// y onReconexion se llama al volver a conectar (puede haberse perdido alguna). Devuelve la función que lo cierra.
+export const suscribirNotificaciones = (onNotificacion, onReconexion) => {
+  let source = null;
+  let reintento = null;
+  let cerrado = false;
+  let conectadoAntes = false;
+
+  const conectar = async () => {
+    try {
+      const token = await getStreamToken();
+      if (cerrado) return;
+      source = new EventSource(`${API_URL}/stream?token=${encodeURIComponent(token)}`);
+      source.onopen = () => {
+        if (conectadoAntes && onReconexion) onReconexion();
+        conectadoAntes = true;
+      };
+      source.addEventListener('notificacion', (event) => {
+        onNotificacion(JSON.parse(event.data));
+      });
+      // El token ya expiró cuando el navegador reintenta solo: se reabre con uno nuevo
+      source.onerror = () => {
+        source.close();
+        programarReintento();
+      };
+    } catch (error) {
+      console.error('Error opening notification stream:', error);
+      programarReintento();
+    }
+  };
+
+  const programarReintento = () => {
+    if (cerrado || reintento) return;
+    reintento = setTimeout(() => {
+      reintento = null;
+      conectar();
+    }, REINTENTO_STREAM_MS);
+  };
+
+  conectar();
+
+  return () => {
+    cerrado = true;
+    clearTimeout(reintento);
+    if (source) source.close();
+  };
+};
+
+export default {getAllNotificaciones,toogleNotificacion,deleteNotificacion,toogleAllNotificacion,deleteAllNotificacion,suscribirNotificaciones};
\ No newline at end of file
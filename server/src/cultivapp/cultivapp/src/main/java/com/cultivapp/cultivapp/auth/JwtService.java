@@ -2,6 +2,7 @@ package com.cultivapp.cultivapp.auth;
 
 import java.time.Instant;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.Map;
 
 import javax.crypto.SecretKey;
@@ -55,6 +56,19 @@ public class JwtService {
      */
     private final long expMinutes;
 
+    /**
+     * Claim that marks a stream token and its value. A stream token is only accepted
+     * by JwtAuthenticationFilter on GET /api/notificaciones/stream, as ?token=.
+     */
+    public static final String CLAIM_USO = "uso";
+    public static final String USO_STREAM = "stream";
+
+    /**
+     * Stream token expiration time in seconds. It only has to last until the
+     * client opens the EventSource (default: 60 seconds).
+     */
+    private final long streamExpSeconds;
+
     /**
      * Constructor - Initializes JWT configuration from application.properties.
      * 
@@ -69,11 +83,13 @@ public class JwtService {
      */
     public JwtService(
             @Value("${security.jwt.secret}") String secret,
-            @Value("${security.jwt.exp-minutes}") long expMinutes
+            @Value("${security.jwt.exp-minutes}") long expMinutes,
+            @Value("${security.jwt.stream-exp-seconds:60}") long streamExpSeconds
     ) {
         // Convert the secret string into a proper HMAC-SHA256 key
         this.key = Keys.hmacShaKeyFor(secret.getBytes());
         this.expMinutes = expMinutes;
+        this.streamExpSeconds = streamExpSeconds;
     }
 
     /**
@@ -104,11 +120,33 @@ public class JwtService {
      * data in claims as they can be decoded (but not modified without the secret key).
      */
     public String generate(String subject, Map<String, Object> claims) {
+        return firmar(subject, claims, expMinutes * 60);
+    }
+
+    /**
+     * Generates a short-lived token that only opens the notification stream.
+     *
+     * The browser's EventSource cannot send the Authorization header, so the client
+     * requests one of these with its normal token and passes it in the stream URL.
+     * Query strings end up in access logs: the token is marked with the "uso" claim
+     * so it cannot be used on any other endpoint, and it expires in seconds.
+     *
+     * @param subject The user's email.
+     * @param claims Additional data to include in the token (e.g., {"role": "ADMIN"}).
+     * @return A signed JWT valid only for GET /api/notificaciones/stream.
+     */
+    public String generarTokenStream(String subject, Map<String, Object> claims) {
+        Map<String, Object> conUso = new HashMap<>(claims);
+        conUso.put(CLAIM_USO, USO_STREAM);
+        return firmar(subject, conUso, streamExpSeconds);
+    }
+
+    private String firmar(String subject, Map<String, Object> claims, long segundos) {
         // Get current time for "issued at" timestamp
         Instant now = Instant.now();
         
-        // Calculate expiration time by adding configured minutes
-        Instant exp = now.plusSeconds(expMinutes * 60);
+        // Calculate expiration time by adding the validity in seconds
+        Instant exp = now.plusSeconds(segundos);
         
         // Build and sign the JWT token
         return Jwts.builder()
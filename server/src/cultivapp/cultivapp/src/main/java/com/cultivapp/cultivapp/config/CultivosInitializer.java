@@ -0,0 +1,64 @@
+package com.cultivapp.cultivapp.config;
+
+import java.time.LocalDateTime;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cultivapp.cultivapp.repositories.CultivoRepository;
+
+/**
+ * Completa las columnas derivadas de los cultivos creados antes de que existieran.
+ *
+ * - fecha_fin_etapa: solo se tocan las filas con inicio de etapa y sin fin; los cultivos
+ *   cuya etapa no tiene duración quedan en null y se recalculan en el siguiente arranque.
+ *   Los cultivos en su última etapa no tienen fin: se limpia el que guardó una versión anterior.
+ * - salud_evaluada_en: se fija al instante del arranque, así las tareas vencidas de los
+ *   cultivos existentes (ya penalizadas por la pasada nocturna anterior) solo decaen desde ahora.
+ */
+@Component
+@Order(1)
+public class CultivosInitializer implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(CultivosInitializer.class);
+
+    private final CultivoRepository cultivoRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public CultivosInitializer(CultivoRepository cultivoRepository, TransactionTemplate transactionTemplate) {
+        this.cultivoRepository = cultivoRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        LocalDateTime ahora = LocalDateTime.now();
+        try {
+            Integer evaluados = transactionTemplate.execute(status -> cultivoRepository.inicializarSaludEvaluada(ahora));
+            if (evaluados != null && evaluados > 0) {
+                log.info("salud_evaluada_en initialized for {} crops", evaluados);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not initialize salud_evaluada_en: {}", e.getMessage());
+        }
+
+        try {
+            Integer limpiados = transactionTemplate.execute(status -> cultivoRepository.limpiarFinUltimaEtapa());
+            if (limpiados != null && limpiados > 0) {
+                log.info("fecha_fin_etapa cleared for {} crops in their last stage", limpiados);
+            }
+            Integer actualizados = transactionTemplate.execute(status -> cultivoRepository.recalcularFinEtapaPendientes());
+            if (actualizados != null && actualizados > 0) {
+                log.info("fecha_fin_etapa computed for {} crops", actualizados);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not compute fecha_fin_etapa: {}", e.getMessage());
+        }
+    }
+}
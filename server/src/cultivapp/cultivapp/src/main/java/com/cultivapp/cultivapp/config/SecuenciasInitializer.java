@@ -0,0 +1,63 @@
+package com.cultivapp.cultivapp.config;
+
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Alinea las secuencias (pooled) de ids de Tarea, Notificacion y Cultivo con los ids
+ * ya guardados en sus tablas.
+ *
+ * Esas entidades usaban ids IDENTITY; en una base existente Hibernate crea las nuevas
+ * secuencias empezando en 1, lo que chocaría con las filas existentes. La secuencia
+ * solo avanza, nunca retrocede, así que ejecutarlo en cada arranque es seguro.
+ */
+@Component
+@Order(0)
+public class SecuenciasInitializer implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SecuenciasInitializer.class);
+
+    // Debe coincidir con el allocationSize del @SequenceGenerator de cada entidad
+    private static final int ASIGNACION = 50;
+
+    private static final Map<String, String> SECUENCIAS = Map.of(
+        "tareas_seq", "tareas",
+        "notificaciones_seq", "notificaciones",
+        "cultivos_seq", "cultivos"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SecuenciasInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        SECUENCIAS.forEach(this::alinear);
+    }
+
+    private void alinear(String secuencia, String tabla) {
+        // Con el optimizador pooled un nextval de N reparte los ids (N - 50, N], así que el
+        // siguiente valor debe ser al menos MAX(id) + 50
+        String sql = """
+            SELECT setval('%1$s', m.max_id + %3$d, false)
+            FROM (SELECT COALESCE(MAX(id), 0) AS max_id FROM %2$s) m, %1$s s
+            WHERE (CASE WHEN s.is_called THEN s.last_value + %3$d ELSE s.last_value END) < m.max_id + %3$d
+            """.formatted(secuencia, tabla, ASIGNACION);
+        try {
+            jdbcTemplate.queryForList(sql, Long.class)
+                .forEach(siguiente -> log.info("Sequence {} aligned with {}: next value {}", secuencia, tabla, siguiente));
+        } catch (DataAccessException e) {
+            log.warn("Could not align sequence {} with table {}: {}", secuencia, tabla, e.getMessage());
+        }
+    }
+}
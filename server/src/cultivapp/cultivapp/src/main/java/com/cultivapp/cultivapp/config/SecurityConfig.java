@@ -19,6 +19,8 @@ import com.cultivapp.cultivapp.security.CustomAccessDeniedHandler;
 import com.cultivapp.cultivapp.security.CustomAuthenticationEntryPoint;
 import com.cultivapp.cultivapp.security.JwtAuthenticationFilter;
 
+import jakarta.servlet.DispatcherType;
+
 /**
  * Security configuration for CultivApp.
  * Implements role-based access control (RBAC) for Admin and Producer roles.
@@ -66,9 +68,17 @@ public class SecurityConfig {
                             session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
 
                     .authorizeHttpRequests(auth -> auth
+                            // Async re-dispatch of a request already authorized (SSE notification streams):
+                            // the stateless JWT filter does not run again on it
+                            .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                             // Public endpoints
                             .requestMatchers("/api/auth/**", "/api/public/**").permitAll()
                             .requestMatchers("/h2-console/**").permitAll()
+
+                            // Health check is public; metrics expose internals, so the scrape needs an ADMIN token
+                            .requestMatchers("/actuator/health").permitAll()
+                            .requestMatchers("/actuator/**").hasRole("ADMIN")
                             
                             // Public species endpoints (allow all users to view species)
                             .requestMatchers(HttpMethod.GET, "/api/especies/**").permitAll()
@@ -85,6 +95,9 @@ public class SecurityConfig {
                             // Task management (admin only)
                             .requestMatchers("/api/admin/tareas/**").hasRole("ADMIN")
 
+                            // Scheduler run ledger (admin only)
+                            .requestMatchers("/api/admin/ejecuciones/**").hasRole("ADMIN")
+
                             // Crop management - authenticated users (PRODUCTOR)
                             .requestMatchers("/api/cultivos/**").authenticated()
 
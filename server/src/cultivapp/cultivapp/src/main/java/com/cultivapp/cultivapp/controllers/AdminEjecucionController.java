@@ -0,0 +1,82 @@
+package com.cultivapp.cultivapp.controllers;
+
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.cultivapp.cultivapp.models.EjecucionProgramada;
+import com.cultivapp.cultivapp.models.enums.TipoEjecucion;
+import com.cultivapp.cultivapp.services.EjecucionService;
+import com.cultivapp.cultivapp.services.LanzadorEjecuciones;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Controlador de administración del registro de corridas de los schedulers.
+ *
+ * Endpoints:
+ * - GET /api/admin/ejecuciones - Últimas corridas
+ * - GET /api/admin/ejecuciones/{id} - Una corrida con su checkpoint y contadores
+ * - POST /api/admin/ejecuciones/{tipo} - Lanza ahora una corrida (solo CICLO_VIDA)
+ * - POST /api/admin/ejecuciones/{id}/reanudar - Reanuda una corrida fallida o interrumpida
+ */
+@RestController
+@RequestMapping("/api/admin/ejecuciones")
+@PreAuthorize("hasRole('ADMIN')")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class AdminEjecucionController {
+
+    private final EjecucionService ejecucionService;
+    private final LanzadorEjecuciones lanzadorEjecuciones;
+
+    @GetMapping
+    public ResponseEntity<List<EjecucionProgramada>> getEjecuciones() {
+        return ResponseEntity.ok(ejecucionService.listarRecientes());
+    }
+
+    @GetMapping("/{id:\\d+}")
+    public ResponseEntity<EjecucionProgramada> getEjecucion(@PathVariable Integer id) {
+        return ResponseEntity.ok(ejecucionService.getById(id));
+    }
+
+    @PostMapping("/{tipo:[A-Za-z]+}")
+    public ResponseEntity<EjecucionProgramada> lanzar(@PathVariable String tipo) {
+        EjecucionProgramada ejecucion = lanzadorEjecuciones.lanzar(TipoEjecucion.valueOf(tipo.toUpperCase()));
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(ejecucion);
+    }
+
+    @PostMapping("/{id:\\d+}/reanudar")
+    public ResponseEntity<EjecucionProgramada> reanudar(@PathVariable Integer id) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(lanzadorEjecuciones.reanudar(id));
+    }
+
+    @ExceptionHandler(EjecucionService.EjecucionNotFoundException.class)
+    public ResponseEntity<ErrorMessage> handleNotFound(EjecucionService.EjecucionNotFoundException ex) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorMessage(ex.getMessage()));
+    }
+
+    @ExceptionHandler({
+        EjecucionService.EjecucionEnCursoException.class,
+        EjecucionService.EjecucionNoReanudableException.class
+    })
+    public ResponseEntity<ErrorMessage> handleConflict(RuntimeException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(new ErrorMessage(ex.getMessage()));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ErrorMessage> handleTipoInvalido(IllegalArgumentException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ErrorMessage(ex.getMessage()));
+    }
+
+    record ErrorMessage(String message) {}
+}
@@ -1,10 +1,14 @@
 package com.cultivapp.cultivapp.controllers;
 
+import java.time.LocalDate;
 import java.util.List;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -12,12 +16,17 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.cultivapp.cultivapp.dto.CultivoDTO;
 import com.cultivapp.cultivapp.dto.CultivoDetailDTO;
 import com.cultivapp.cultivapp.dto.CultivoRequest;
+import com.cultivapp.cultivapp.dto.EtapaPorTerminarDTO;
+import com.cultivapp.cultivapp.dto.HistorialSaludDTO;
+import com.cultivapp.cultivapp.models.enums.AgrupacionSalud;
 import com.cultivapp.cultivapp.services.CultivoService;
+import com.cultivapp.cultivapp.services.HistorialSaludService;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -28,6 +37,7 @@ import lombok.RequiredArgsConstructor;
 @CrossOrigin(origins = "*")
 public class CultivoController {
     private final CultivoService cultivoService;
+    private final HistorialSaludService historialSaludService;
 
     @GetMapping
     public ResponseEntity<List<CultivoDTO>> getAllCultivos() {
@@ -38,11 +48,31 @@ public class CultivoController {
         return ResponseEntity.ok(cultivoService.getCultivosByUsuarioId(usuarioId));
     }
 
+    // Cultivos cuya etapa termina en los próximos 'dias' días
+    @GetMapping("/usuario/{usuarioId}/etapa-por-terminar")
+    public ResponseEntity<List<EtapaPorTerminarDTO>> getEtapaPorTerminar(@PathVariable Integer usuarioId,
+                                                                         @RequestParam(defaultValue = "7") int dias) {
+        return ResponseEntity.ok(cultivoService.getEtapaPorTerminar(usuarioId, dias));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<CultivoDetailDTO> getCultivoById(@PathVariable Integer id) {
         return ResponseEntity.ok(cultivoService.getCultivoDetailById(id));
     }
 
+    // Serie de salud del cultivo agrupada por día o semana (por defecto, los últimos 30 días).
+    // Incluye el decaimiento por tareas vencidas: un punto diario mientras el cultivo decae
+    @GetMapping("/{id}/salud/historial")
+    public ResponseEntity<HistorialSaludDTO> getHistorialSalud(
+            @PathVariable Integer id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(defaultValue = "DIA") AgrupacionSalud agrupacion) {
+        LocalDate fin = hasta != null ? hasta : LocalDate.now();
+        LocalDate inicio = desde != null ? desde : fin.minusDays(29);
+        return ResponseEntity.ok(historialSaludService.historial(id, inicio, fin, agrupacion));
+    }
+
     @PostMapping
     public ResponseEntity<CultivoDTO> createCultivo(@Valid @RequestBody CultivoRequest request) {
         CultivoDTO created = cultivoService.createCultivo(request);
@@ -66,6 +96,13 @@ public class CultivoController {
         CultivoDTO updated = cultivoService.toggleEstado(id);
         return ResponseEntity.ok(updated);
     }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ErrorMessage> handleParametroInvalido(IllegalArgumentException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ErrorMessage(ex.getMessage()));
+    }
+
+    record ErrorMessage(String message) {}
   
     // @ExceptionHandler(CultivoService.CultivoNotFoundException.class)
     // public ResponseEntity<String> handleCultivoNotFound(CultivoService.CultivoNotFoundException ex) {
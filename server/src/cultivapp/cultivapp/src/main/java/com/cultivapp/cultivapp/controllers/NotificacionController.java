@@ -1,14 +1,33 @@
 package com.cultivapp.cultivapp.controllers;
 
+import java.security.Principal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import com.cultivapp.cultivapp.models.Notificacion;
+import com.cultivapp.cultivapp.auth.JwtService;
+import com.cultivapp.cultivapp.dto.NotificacionDTO;
+import com.cultivapp.cultivapp.dto.PaginaNotificacionesDTO;
+import com.cultivapp.cultivapp.services.CanalNotificaciones;
 import com.cultivapp.cultivapp.services.NotificacionService;
 
 import lombok.RequiredArgsConstructor;
@@ -19,21 +38,54 @@ import lombok.RequiredArgsConstructor;
 public class NotificacionController {
 
     private final NotificacionService notificacionService;
+    private final CanalNotificaciones canalNotificaciones;
+    private final JwtService jwtService;
 
+    // Canal SSE del usuario autenticado: recibe cada notificación nueva (evento "notificacion") al crearse.
+    // EventSource no envía cabeceras: se abre con ?token= obtenido de POST /stream/token
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(Principal principal) {
+        return canalNotificaciones.suscribir(notificacionService.usuarioIdPorEmail(principal.getName()));
+    }
+
+    // Token de vida corta que solo sirve para abrir /stream
+    @PostMapping("/stream/token")
+    public TokenStream streamToken(Authentication authentication) {
+        String rol = authentication.getAuthorities().stream()
+            .map(GrantedAuthority::getAuthority)
+            .map(a -> a.replaceFirst("^ROLE_", ""))
+            .findFirst()
+            .orElseThrow();
+        return new TokenStream(jwtService.generarTokenStream(authentication.getName(), Map.of("role", rol)));
+    }
     
     @GetMapping("/{id}")
-    public List<Notificacion> getNotificaciones(@PathVariable Integer id){
+    public List<NotificacionDTO> getNotificaciones(@PathVariable Integer id){
        return notificacionService.getUserNotifications(id);
     }
 
+    // Feed paginado: ?before=<fecha,id> (campo 'siguiente' de la página anterior) y ?limit=
+    @GetMapping("/{usuarioId}/feed")
+    public PaginaNotificacionesDTO getFeed(@PathVariable Integer usuarioId,
+                                           @RequestParam(name = "before", required = false) String before,
+                                           @RequestParam(name = "limit", defaultValue = "" + NotificacionService.LIMITE_FEED) int limit,
+                                           Principal principal) {
+        return notificacionService.getFeed(usuarioPropio(usuarioId, principal), before, limit);
+    }
+
+    @GetMapping("/{usuarioId}/unread-count")
+    public NoLeidas getUnreadCount(@PathVariable Integer usuarioId, Principal principal) {
+        return new NoLeidas(notificacionService.contarNoLeidas(usuarioPropio(usuarioId, principal)));
+    }
+
     @GetMapping("/{id}/leido")
-    public void  toogleLeido(@PathVariable Integer id) {
-        notificacionService.toggleLeido(id);
+    public void  toogleLeido(@PathVariable Integer id, Principal principal) {
+        notificacionService.toggleLeido(id, principal.getName());
     }
 
     @DeleteMapping("/{id}")
-    public void deleteNotificacion(@PathVariable Integer id) {
-        notificacionService.deleteNotificacion(id);
+    public void deleteNotificacion(@PathVariable Integer id, Principal principal) {
+        notificacionService.deleteNotificacion(id, principal.getName());
     }
 
     @DeleteMapping("/usuario/{id}")
@@ -46,4 +98,39 @@ public class NotificacionController {
         notificacionService.toogleAllLeidas(id);
     }
 
+    // Marca como leídas en bloque las notificaciones del cuerpo (array de ids)
+    @PatchMapping("/usuario/{id}/leidas")
+    public Afectadas marcarLeidas(@PathVariable Integer id, @RequestBody List<Integer> ids, Principal principal) {
+        return new Afectadas(notificacionService.marcarLeidas(usuarioPropio(id, principal), ids));
+    }
+
+    // Borra en bloque las notificaciones leídas anteriores a ?antesDe= (ISO, p. ej. 2025-01-31T00:00:00)
+    @DeleteMapping("/usuario/{id}/leidas")
+    public Afectadas deleteLeidasAntesDe(@PathVariable Integer id,
+                                         @RequestParam("antesDe") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime antesDe,
+                                         Principal principal) {
+        return new Afectadas(notificacionService.deleteLeidasAntesDe(usuarioPropio(id, principal), antesDe));
+    }
+
+    // El id de la ruta debe ser el del usuario autenticado: 403 si pide las notificaciones de otro
+    private Integer usuarioPropio(Integer usuarioId, Principal principal) {
+        Integer propio = notificacionService.usuarioIdPorEmail(principal.getName());
+        if (!propio.equals(usuarioId)) {
+            throw new AccessDeniedException("Solo puede acceder a sus propias notificaciones");
+        }
+        return propio;
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ErrorMessage> handleParametroInvalido(IllegalArgumentException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ErrorMessage(ex.getMessage()));
+    }
+
+    record NoLeidas(long noLeidas) {}
+
+    record TokenStream(String token) {}
+
+    record Afectadas(int afectadas) {}
+
+    record ErrorMessage(String message) {}
 }
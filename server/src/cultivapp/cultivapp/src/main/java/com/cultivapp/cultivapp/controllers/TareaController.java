@@ -1,11 +1,19 @@
 package com.cultivapp.cultivapp.controllers;
 
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.cultivapp.cultivapp.dto.CalendarioTareasDTO;
+import com.cultivapp.cultivapp.services.CalendarioTareasService;
 import com.cultivapp.cultivapp.services.TareaService;
 
 import lombok.RequiredArgsConstructor;
@@ -15,11 +23,29 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 @CrossOrigin(origins = "*")
 public class TareaController {
-    
+
     private final TareaService tareaService;
+    private final CalendarioTareasService calendarioTareasService;
 
     @PostMapping("/ejecutar")
     public void ejecutarTarea(@RequestBody Integer tareaId) {
         tareaService.ejecutarTarea(tareaId);
     }
-}
\ No newline at end of file
+
+    /**
+     * Proyección de las tareas futuras de los cultivos activos del usuario
+     * para los próximos 'dias' días. No materializa ninguna tarea.
+     */
+    @GetMapping("/calendario/{usuarioId}")
+    public ResponseEntity<CalendarioTareasDTO> getCalendario(@PathVariable Integer usuarioId,
+                                                             @RequestParam(defaultValue = "30") int dias) {
+        return ResponseEntity.ok(calendarioTareasService.proyectar(usuarioId, dias));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ErrorMessage> handleParametroInvalido(IllegalArgumentException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ErrorMessage(ex.getMessage()));
+    }
+
+    record ErrorMessage(String message) {}
+}
@@ -0,0 +1,36 @@
+package com.cultivapp.cultivapp.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CalendarioTareasDTO {
+    private Integer usuarioId;
+    private LocalDateTime desde;
+    private LocalDateTime hasta;
+    private List<TareaProyectada> tareas;
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class TareaProyectada {
+        private Integer cultivoId;
+        private String cultivoNombre;
+        private Short etapaOrden;
+        private String etapa;
+        private Integer reglaId;
+        private String tipoRegla;
+        private String descripcionRegla;
+        private LocalDateTime fechaProgramada;
+        private LocalDateTime fechaVencimiento;
+    }
+}
@@ -0,0 +1,23 @@
+package com.cultivapp.cultivapp.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Cultivo cuya etapa actual termina pronto (lista "etapa por terminar" de la UI)
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class EtapaPorTerminarDTO {
+    private Integer cultivoId;
+    private String cultivoNombre;
+    private String especieNombre;
+    private Short etapaActual;
+    private String etapa;
+    private LocalDateTime fechaInicioEtapa;
+    private LocalDateTime fechaFinEtapa;
+}
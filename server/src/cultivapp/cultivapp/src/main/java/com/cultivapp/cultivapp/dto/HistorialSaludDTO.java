@@ -0,0 +1,35 @@
+package com.cultivapp.cultivapp.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.cultivapp.cultivapp.models.enums.AgrupacionSalud;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class HistorialSaludDTO {
+    private Integer cultivoId;
+    private AgrupacionSalud agrupacion;
+    private LocalDate desde;
+    private LocalDate hasta;
+    private List<Punto> puntos;
+
+    // Salud al cierre de cada día o semana (la semana empieza el lunes)
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Punto {
+        private LocalDate fecha;
+        private double riego;
+        private double fertilizacion;
+        private double mantenimiento;
+    }
+}
@@ -0,0 +1,22 @@
+package com.cultivapp.cultivapp.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Notificación de un usuario: propia o aviso global. Los avisos globales llevan el id
+// negado, así los ids no chocan y los endpoints por id (leer, borrar) sirven para ambos
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class NotificacionDTO {
+    private Integer id;
+    private String mensaje;
+    private LocalDateTime fecha;
+    private boolean leida;
+    private boolean global;
+}
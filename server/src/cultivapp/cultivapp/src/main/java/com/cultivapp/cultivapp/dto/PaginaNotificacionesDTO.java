@@ -0,0 +1,19 @@
+package com.cultivapp.cultivapp.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Página del feed de notificaciones; 'siguiente' es el valor de 'before' para pedir la
+// página siguiente ("fecha,id" de la última), o null si no hay más
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PaginaNotificacionesDTO {
+    private List<NotificacionDTO> notificaciones;
+    private String siguiente;
+}
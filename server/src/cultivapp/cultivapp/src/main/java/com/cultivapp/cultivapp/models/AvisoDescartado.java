@@ -0,0 +1,58 @@
+package com.cultivapp.cultivapp.models;
+
+import java.io.Serializable;
+
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Entidad AvisoDescartado: una NotificacionGlobal borrada por un usuario. Borrar un aviso
+// no debe ocultar los anteriores, así que se registra aquí en lugar de mover el cursor
+// borradaHasta del usuario (que solo avanzan las acciones de tipo "borrar todo")
+@Entity
+@Table(name = "avisos_descartados")
+@IdClass(AvisoDescartado.Clave.class)
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvisoDescartado {
+
+    @Id
+    @Column(name = "usuario_id")
+    private Integer usuarioId;
+
+    @Id
+    @Column(name = "global_id")
+    private Integer globalId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "usuario_id", insertable = false, updatable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Usuario usuario;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "global_id", insertable = false, updatable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private NotificacionGlobal aviso;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Clave implements Serializable {
+        private Integer usuarioId;
+        private Integer globalId;
+    }
+}
@@ -17,11 +17,13 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -31,7 +33,11 @@ import lombok.Setter;
 
 // Cultivo entity: represents a farmer's crop
 @Entity
-@Table(name = "cultivos")
+@Table(
+    name = "cultivos",
+    // Cultivos con la etapa cumplida o por terminar: un rango sobre fecha_fin_etapa
+    indexes = @Index(name = "idx_cultivos_fin_etapa", columnList = "estado, fecha_fin_etapa")
+)
 @Getter @Setter
 @NoArgsConstructor
 @AllArgsConstructor
@@ -39,11 +45,17 @@ import lombok.Setter;
 public class Cultivo {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cultivos_seq")
+    @SequenceGenerator(name = "cultivos_seq", sequenceName = "cultivos_seq", allocationSize = 50)
     private Integer id;
 
     @Column(name = "fecha_inicio_etapa")
     private LocalDateTime fechaInicioEtapa;
+
+    // fechaInicioEtapa + duracionDias de la etapa actual (null si la etapa no tiene duración).
+    // Materializada: se recalcula al cambiar la etapa, su inicio o la duración de la etapa
+    @Column(name = "fecha_fin_etapa")
+    private LocalDateTime fechaFinEtapa;
     
      // Foreign key to usuarios table
     @ManyToOne(fetch = FetchType.LAZY)
@@ -81,14 +93,20 @@ public class Cultivo {
     @Column(name = "fecha_actualizacion")
     private LocalDateTime fechaActualizacion;
 
-    @Column(name = "salud_riego")
+    // Salud evaluada en saludEvaluadaEn; el valor actual descuenta el decaimiento de las tareas
+    // vencidas desde entonces (SaludService). Solo se escriben en SQL con la fila bloqueada
+    // (CultivoRepository.guardarSalud): guardar la entidad no pisa una materialización concurrente
+    @Column(name = "salud_riego", updatable = false)
     private double saludRiego;
 
-    @Column(name = "salud_fertilizacion")
+    @Column(name = "salud_fertilizacion", updatable = false)
     private double saludFertilizacion;
 
-    @Column(name = "salud_mantenimiento")
+    @Column(name = "salud_mantenimiento", updatable = false)
     private double saludMantenimiento;
+
+    @Column(name = "salud_evaluada_en", updatable = false)
+    private LocalDateTime saludEvaluadaEn;
     
     @OneToMany(mappedBy = "cultivo", cascade = CascadeType.ALL, orphanRemoval = true)
     @JsonIgnoreProperties({"cultivo"})
@@ -102,7 +120,10 @@ public class Cultivo {
         saludRiego=75.0;
         saludFertilizacion=75.0;
         saludMantenimiento=75.0;
-        fechaInicioEtapa = LocalDateTime.now();
+        saludEvaluadaEn = LocalDateTime.now();
+        if (fechaInicioEtapa == null) {
+            fechaInicioEtapa = LocalDateTime.now();
+        }
         fechaCreacion = LocalDateTime.now();
         fechaActualizacion = LocalDateTime.now();
         etapaActual=1;
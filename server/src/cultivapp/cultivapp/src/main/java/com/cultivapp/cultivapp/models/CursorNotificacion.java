@@ -0,0 +1,46 @@
+package com.cultivapp.cultivapp.models;
+
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.MapsId;
+import jakarta.persistence.OneToOne;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Entidad CursorNotificacion: cursores de lectura y borrado de NotificacionGlobal por usuario.
+// Toda notificación global con id <= leidaHasta está leída y con id <= borradaHasta está
+// borrada para este usuario; un usuario sin fila no ha leído ni borrado ninguna
+@Entity
+@Table(name = "cursores_notificacion")
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorNotificacion {
+
+    @Id
+    @Column(name = "usuario_id")
+    private Integer usuarioId;
+
+    @OneToOne(fetch = FetchType.LAZY)
+    @MapsId
+    @JoinColumn(name = "usuario_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Usuario usuario;
+
+    @Column(name = "leida_hasta", nullable = false)
+    private int leidaHasta;
+
+    @Column(name = "borrada_hasta", nullable = false)
+    private int borradaHasta;
+}
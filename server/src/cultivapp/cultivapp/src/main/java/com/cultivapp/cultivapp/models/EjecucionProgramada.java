@@ -0,0 +1,89 @@
+package com.cultivapp.cultivapp.models;
+
+import java.time.LocalDateTime;
+
+import com.cultivapp.cultivapp.models.enums.EstadoEjecucion;
+import com.cultivapp.cultivapp.models.enums.TipoEjecucion;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Entidad EjecucionProgramada: registro de las corridas de los schedulers con su
+// checkpoint, para que una corrida interrumpida se reanude en lugar de empezar de nuevo
+@Entity
+@Table(name = "ejecuciones_programadas")
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EjecucionProgramada {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TipoEjecucion tipo;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private EstadoEjecucion estado;
+
+    // Fase actual de la corrida (VENCIMIENTO, GENERACION, ETAPAS...)
+    @Column(length = 30)
+    private String fase;
+
+    // Checkpoint: todo cultivo con id <= este valor ya está procesado
+    @Column(name = "ultimo_cultivo_id")
+    private Integer ultimoCultivoId;
+
+    // Instante de referencia de la corrida, se reutiliza al reanudar
+    @Column(name = "fecha_corte", nullable = false)
+    private LocalDateTime fechaCorte;
+
+    @Column(name = "cultivos_procesados", nullable = false)
+    private int cultivosProcesados;
+
+    @Column(name = "tareas_vencidas", nullable = false)
+    private int tareasVencidas;
+
+    @Column(name = "tareas_creadas", nullable = false)
+    private int tareasCreadas;
+
+    @Column(name = "cambios_etapa", nullable = false)
+    private int cambiosEtapa;
+
+    @Column(columnDefinition = "TEXT")
+    private String error;
+
+    @Column(name = "fecha_inicio")
+    private LocalDateTime fechaInicio;
+
+    @Column(name = "fecha_actualizacion")
+    private LocalDateTime fechaActualizacion;
+
+    @Column(name = "fecha_fin")
+    private LocalDateTime fechaFin;
+
+    @PrePersist
+    protected void onCreate() {
+        fechaInicio = LocalDateTime.now();
+        fechaActualizacion = fechaInicio;
+        if (fechaCorte == null) {
+            fechaCorte = fechaInicio;
+        }
+    }
+}
@@ -12,6 +12,7 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
@@ -25,7 +26,7 @@ import lombok.Setter;
 
 // Etapa entity: represents a crop growth stage
 @Entity
-@Table(name = "etapas")
+@Table(name = "etapas", indexes = @Index(name = "idx_etapas_especie_orden", columnList = "especie_id, orden"))
 @Getter @Setter
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,73 @@
+package com.cultivapp.cultivapp.models;
+
+import java.time.LocalDateTime;
+
+import com.cultivapp.cultivapp.models.enums.TipoEventoOutbox;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Entidad EventoOutbox: un evento de dominio escrito en la misma transacción que el cambio
+// que lo produjo. Columnas de id simples (sin claves foráneas) abaratan el insert; el
+// despachador (OutboxService) lo convierte en notificaciones y lo borra. Un evento que
+// sigue fallando queda aparcado (fecha_aparcado) para no frenar al resto
+@Entity
+@Table(name = "outbox_eventos")
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EventoOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_eventos_seq")
+    @SequenceGenerator(name = "outbox_eventos_seq", sequenceName = "outbox_eventos_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private TipoEventoOutbox tipo;
+
+    @Column(name = "usuario_id", nullable = false)
+    private Integer usuarioId;
+
+    @Column(name = "cultivo_id")
+    private Integer cultivoId;
+
+    // Texto ya resuelto al escribir: el despacho no vuelve a leer el cultivo
+    @Column(nullable = false)
+    private String mensaje;
+
+    @Column(nullable = false)
+    private LocalDateTime fecha;
+
+    // Despachos fallidos de este evento; null en filas anteriores a la columna (cuenta como 0)
+    private Integer intentos;
+
+    @Column(name = "ultimo_error", columnDefinition = "TEXT")
+    private String ultimoError;
+
+    // Aparcado tras agotar los intentos: el despachador ya no lo toma y queda para revisión manual
+    @Column(name = "fecha_aparcado")
+    private LocalDateTime fechaAparcado;
+
+    @PrePersist
+    protected void onCreate() {
+        if (fecha == null) {
+            fecha = LocalDateTime.now();
+        }
+    }
+}
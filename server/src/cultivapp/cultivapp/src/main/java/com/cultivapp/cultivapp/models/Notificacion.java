@@ -10,9 +10,11 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -24,11 +26,22 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "notificaciones")
+@Table(
+    name = "notificaciones",
+    indexes = {
+        // Feed paginado por keyset: (fecha, id) descendente dentro de cada usuario
+        @Index(name = "idx_notificaciones_usuario_fecha", columnList = "usuario_id, fecha DESC, id DESC"),
+        // Contador de no leídas sin leer la tabla (index-only scan)
+        @Index(name = "idx_notificaciones_usuario_leida", columnList = "usuario_id, leida"),
+        // Purga por retención: las más antiguas de cada estado primero
+        @Index(name = "idx_notificaciones_leida_fecha", columnList = "leida, fecha")
+    }
+)
 public class Notificacion {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notificaciones_seq")
+    @SequenceGenerator(name = "notificaciones_seq", sequenceName = "notificaciones_seq", allocationSize = 50)
     private Integer id;
 
     @Column(nullable = false)
@@ -47,7 +60,10 @@ public class Notificacion {
 
     @PrePersist
     protected void onCreate() {
-        fecha = LocalDateTime.now();
+        // Las que llegan del outbox conservan la fecha del evento
+        if (fecha == null) {
+            fecha = LocalDateTime.now();
+        }
         leida = false;
     }
 
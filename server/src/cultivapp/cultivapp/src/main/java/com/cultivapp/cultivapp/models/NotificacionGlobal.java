@@ -0,0 +1,43 @@
+package com.cultivapp.cultivapp.models;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Entidad NotificacionGlobal: un mensaje para todos los usuarios (p. ej. una especie nueva),
+// guardado una sola vez. Los usuarios registrados antes del envío lo ven al leer sus
+// notificaciones; si está leído o borrado para cada uno lo dice su CursorNotificacion
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "notificaciones_globales")
+public class NotificacionGlobal {
+
+    // Los cursores comparan ids: deben crecer en orden de envío
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(nullable = false)
+    private String mensaje;
+
+    @Column(nullable = false)
+    private LocalDateTime fecha;
+
+    @PrePersist
+    protected void onCreate() {
+        fecha = LocalDateTime.now();
+    }
+}
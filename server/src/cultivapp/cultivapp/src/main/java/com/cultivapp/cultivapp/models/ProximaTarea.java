@@ -0,0 +1,56 @@
+package com.cultivapp.cultivapp.models;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Entidad ProximaTarea: próximo vencimiento de cada par (cultivo, regla), así el
+// generador de tareas encuentra todos los pares vencidos con una consulta por rango indexada
+@Entity
+@Table(
+    name = "proximas_tareas",
+    uniqueConstraints = @UniqueConstraint(columnNames = {"cultivo_id", "regla_id"}),
+    indexes = @Index(name = "idx_proximas_tareas_fecha", columnList = "fecha_proxima, cultivo_id")
+)
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProximaTarea {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "cultivo_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Cultivo cultivo;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "regla_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Regla regla;
+
+    // Cuándo debe generarse la próxima tarea de este par
+    @Column(name = "fecha_proxima", nullable = false)
+    private LocalDateTime fechaProxima;
+}
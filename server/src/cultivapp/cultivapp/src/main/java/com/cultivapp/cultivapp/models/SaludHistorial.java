@@ -0,0 +1,64 @@
+package com.cultivapp.cultivapp.models;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Entidad SaludHistorial: serie de salud de un cultivo, solo de inserción y codificada en deltas.
+// Los valores son décimas de punto; la primera fila de cada cultivo y día ('base') guarda
+// los valores absolutos y las siguientes filas de ese día solo el cambio
+@Entity
+@Table(
+    name = "salud_historial",
+    indexes = @Index(name = "idx_salud_historial_cultivo_fecha", columnList = "cultivo_id, fecha")
+)
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SaludHistorial {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "salud_historial_seq")
+    @SequenceGenerator(name = "salud_historial_seq", sequenceName = "salud_historial_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "cultivo_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Cultivo cultivo;
+
+    @Column(nullable = false)
+    private LocalDateTime fecha;
+
+    // true: valores absolutos; false: cambio desde la fila anterior del cultivo
+    @Column(nullable = false)
+    private boolean base;
+
+    @Column(nullable = false)
+    private short riego;
+
+    @Column(nullable = false)
+    private short fertilizacion;
+
+    @Column(nullable = false)
+    private short mantenimiento;
+}
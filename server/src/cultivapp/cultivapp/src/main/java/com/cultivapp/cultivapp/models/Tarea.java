@@ -10,9 +10,11 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -26,11 +28,17 @@ import lombok.Setter;
 @Getter
 @Setter
 @Builder
-@Table(name = "tareas")
+@Table(
+    name = "tareas",
+    // Tareas vencidas de un cultivo: el decaimiento de su salud se calcula en cada lectura
+    indexes = @Index(name = "idx_tareas_cultivo_vencimiento", columnList = "cultivo_id, fecha_vencimiento")
+)
 public class Tarea {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Ids pooled de secuencia (bloques de 50): con IDENTITY Hibernate no puede agrupar los INSERT en batch
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tareas_seq")
+    @SequenceGenerator(name = "tareas_seq", sequenceName = "tareas_seq", allocationSize = 50)
     private Integer id;
 
     // --- Estado de la tarea ---
@@ -81,8 +89,8 @@ public class Tarea {
             fechaProgramada = LocalDateTime.now();
         }
 
-        // Calcular vencimiento automático si la regla tiene intervalo
-        if (regla != null && regla.getIntervaloDias() != null) {
+        // Calcular vencimiento automático si la regla tiene intervalo (y no viene ya calculado)
+        if (fechaVencimiento == null && regla != null && regla.getIntervaloDias() != null) {
             fechaVencimiento = fechaProgramada.plusDays(regla.getIntervaloDias());
         }
     }
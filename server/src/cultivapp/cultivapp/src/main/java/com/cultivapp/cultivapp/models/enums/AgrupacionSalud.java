@@ -0,0 +1,6 @@
+package com.cultivapp.cultivapp.models.enums;
+
+public enum AgrupacionSalud {
+    DIA,
+    SEMANA
+}
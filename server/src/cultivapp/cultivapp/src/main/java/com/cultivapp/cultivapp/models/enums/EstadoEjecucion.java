@@ -0,0 +1,7 @@
+package com.cultivapp.cultivapp.models.enums;
+
+public enum EstadoEjecucion {
+    EN_CURSO,    // Running, or interrupted before finishing
+    COMPLETADA,  // Finished without errors
+    FALLIDA      // Finished with errors; can be resumed
+}
@@ -0,0 +1,7 @@
+package com.cultivapp.cultivapp.models.enums;
+
+public enum TipoEjecucion {
+    CICLO_VIDA, // Nightly crop lifecycle pipeline (CicloVidaScheduler)
+    TAREAS,     // Legacy: task generation runs recorded before the pipeline
+    ETAPAS      // Legacy: stage verification runs recorded before the pipeline
+}
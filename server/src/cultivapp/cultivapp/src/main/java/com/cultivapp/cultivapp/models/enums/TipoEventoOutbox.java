@@ -0,0 +1,6 @@
+package com.cultivapp.cultivapp.models.enums;
+
+public enum TipoEventoOutbox {
+    CULTIVO_CREADO,  // A user created a crop
+    ETAPA_AVANZADA   // The nightly pipeline moved a crop to a later stage
+}
@@ -0,0 +1,28 @@
+package com.cultivapp.cultivapp.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.cultivapp.cultivapp.models.AvisoDescartado;
+
+@Repository
+public interface AvisoDescartadoRepository extends JpaRepository<AvisoDescartado, AvisoDescartado.Clave> {
+
+    // Idempotente; un usuario o aviso inexistente no inserta nada
+    @Modifying
+    @Query(value = """
+    INSERT INTO avisos_descartados (usuario_id, global_id)
+    SELECT u.id, g.id FROM usuarios u JOIN notificaciones_globales g ON g.id = :globalId
+    WHERE u.id = :usuarioId
+    ON CONFLICT DO NOTHING
+    """, nativeQuery = true)
+    int descartar(@Param("usuarioId") Integer usuarioId, @Param("globalId") int globalId);
+
+    // Los que ya cubre el cursor de borrado sobran
+    @Modifying
+    @Query("DELETE FROM AvisoDescartado d WHERE d.usuarioId = :usuarioId AND d.globalId <= :hasta")
+    int deleteCubiertos(@Param("usuarioId") Integer usuarioId, @Param("hasta") int hasta);
+}
@@ -1,15 +1,23 @@
 package com.cultivapp.cultivapp.repositories;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.cultivapp.cultivapp.models.Cultivo;
 import com.cultivapp.cultivapp.models.enums.TipoEtapa;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface CultivoRepository extends JpaRepository<Cultivo, Integer> {
     
@@ -25,6 +33,82 @@ public interface CultivoRepository extends JpaRepository<Cultivo, Integer> {
     @Query("SELECT c FROM Cultivo c WHERE c.estado = 'ACTIVO'")
     List<Cultivo> findCultivosActivos();
 
+    // Cultivos activos de un usuario con su especie ya cargada
+    @Query("SELECT c FROM Cultivo c JOIN FETCH c.especie WHERE c.usuario.id = :usuarioId AND c.estado = 'ACTIVO' ORDER BY c.id")
+    List<Cultivo> findActivosByUsuarioId(@Param("usuarioId") Integer usuarioId);
+
+    // Ids de cultivos activos a partir de un checkpoint, leídos con un cursor (fetch size)
+    // para partir la tabla en chunks sin cargarla entera; requiere una transacción abierta
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT c.id FROM Cultivo c WHERE c.estado = 'ACTIVO' AND c.id > :desde ORDER BY c.id")
+    Stream<Integer> streamIdsActivosDesde(@Param("desde") Integer desde);
+
+    // Ids de los cultivos ACTIVO del rango cuya etapa actual ya se cumplió a la fecha de corte:
+    // un rango sobre idx_cultivos_fin_etapa, el coste depende de las transiciones
+    @Query("""
+    SELECT c.id FROM Cultivo c
+    WHERE c.estado = 'ACTIVO' AND c.fechaFinEtapa < :ahora
+    AND c.id BETWEEN :desde AND :hasta
+    ORDER BY c.id
+    """)
+    List<Integer> findIdsConEtapaCumplidaEntre(@Param("ahora") LocalDateTime ahora,
+                                              @Param("desde") Integer desde,
+                                              @Param("hasta") Integer hasta);
+
+    // Cultivos activos de un usuario cuya etapa termina en [desde, hasta], los más próximos primero
+    @Query("""
+    SELECT c FROM Cultivo c JOIN FETCH c.especie
+    WHERE c.usuario.id = :usuarioId AND c.estado = 'ACTIVO'
+    AND c.fechaFinEtapa BETWEEN :desde AND :hasta
+    ORDER BY c.fechaFinEtapa, c.id
+    """)
+    List<Cultivo> findEtapaPorTerminarByUsuarioId(@Param("usuarioId") Integer usuarioId,
+                                                  @Param("desde") LocalDateTime desde,
+                                                  @Param("hasta") LocalDateTime hasta);
+
+    /**
+     * Recalcula fecha_fin_etapa de los cultivos de una especie a partir de la duración
+     * de su etapa actual; se usa cuando se crean, editan o eliminan etapas. La última
+     * etapa queda sin fin: no hay a qué avanzar y el pipeline no debe volver a leerla.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+    UPDATE cultivos c SET fecha_fin_etapa = (
+        SELECT c.fecha_inicio_etapa + make_interval(days => e.duracion_dias)
+        FROM etapas e
+        WHERE e.especie_id = c.especie_id AND e.orden = c.etapa_actual
+        AND EXISTS (SELECT 1 FROM etapas s WHERE s.especie_id = c.especie_id AND s.orden > e.orden)
+        LIMIT 1)
+    WHERE c.especie_id = :especieId
+    """, nativeQuery = true)
+    int recalcularFinEtapaPorEspecie(@Param("especieId") Integer especieId);
+
+    // Rellena fecha_fin_etapa de los cultivos anteriores a la columna (salvo en su última etapa)
+    @Modifying
+    @Query(value = """
+    UPDATE cultivos c SET fecha_fin_etapa = (
+        SELECT c.fecha_inicio_etapa + make_interval(days => e.duracion_dias)
+        FROM etapas e
+        WHERE e.especie_id = c.especie_id AND e.orden = c.etapa_actual
+        LIMIT 1)
+    WHERE c.fecha_fin_etapa IS NULL AND c.fecha_inicio_etapa IS NOT NULL
+    AND EXISTS (SELECT 1 FROM etapas s WHERE s.especie_id = c.especie_id AND s.orden > c.etapa_actual)
+    """, nativeQuery = true)
+    int recalcularFinEtapaPendientes();
+
+    // Quita el fin de etapa que versiones anteriores guardaban para la última etapa
+    @Modifying
+    @Query(value = """
+    UPDATE cultivos c SET fecha_fin_etapa = NULL
+    WHERE c.fecha_fin_etapa IS NOT NULL
+    AND NOT EXISTS (SELECT 1 FROM etapas s WHERE s.especie_id = c.especie_id AND s.orden > c.etapa_actual)
+    """, nativeQuery = true)
+    int limpiarFinUltimaEtapa();
+
+    // Cultivos por id con especie y usuario ya cargados
+    @Query("SELECT c FROM Cultivo c JOIN FETCH c.especie JOIN FETCH c.usuario WHERE c.id IN :ids ORDER BY c.id")
+    List<Cultivo> findConEspecieYUsuarioByIdIn(@Param("ids") Collection<Integer> ids);
+
     @Query("""
     SELECT c FROM Cultivo c
     JOIN FETCH c.especie e
@@ -35,5 +119,81 @@ public interface CultivoRepository extends JpaRepository<Cultivo, Integer> {
     """)
     Optional<Cultivo> findCultivoConTodo(@Param("id") Integer cultivoid);
 
+    // Salud actual de varios cultivos sin cargar las entidades
+    @Query("""
+    SELECT c.id AS id, c.saludRiego AS saludRiego, c.saludFertilizacion AS saludFertilizacion,
+           c.saludMantenimiento AS saludMantenimiento
+    FROM Cultivo c WHERE c.id IN :ids
+    """)
+    List<SaludActual> findSaludByIdIn(@Param("ids") Collection<Integer> ids);
+
+    // Salud guardada del cultivo, bloqueando su fila hasta el fin de la transacción (materialización)
+    @Query(value = """
+    SELECT id AS "id", salud_riego AS "saludRiego", salud_fertilizacion AS "saludFertilizacion",
+           salud_mantenimiento AS "saludMantenimiento"
+    FROM cultivos WHERE id = :id
+    FOR UPDATE
+    """, nativeQuery = true)
+    Optional<SaludActual> bloquearSalud(@Param("id") Integer cultivoId);
+
+    // Fija la salud ya evaluada en 'ahora'; la fila debe estar bloqueada con bloquearSalud
+    @Modifying
+    @Query("""
+    UPDATE Cultivo c SET
+        c.saludRiego = :riego,
+        c.saludFertilizacion = :fertilizacion,
+        c.saludMantenimiento = :mantenimiento,
+        c.saludEvaluadaEn = :ahora,
+        c.fechaActualizacion = :ahora
+    WHERE c.id = :id
+    """)
+    int guardarSalud(@Param("id") Integer cultivoId,
+                     @Param("riego") double riego,
+                     @Param("fertilizacion") double fertilizacion,
+                     @Param("mantenimiento") double mantenimiento,
+                     @Param("ahora") LocalDateTime ahora);
+
+    // Cultivos activos con alguna tarea vencida sin realizar: su salud decae aunque nada la escriba
+    @Query(value = """
+    SELECT DISTINCT t.cultivo_id
+    FROM tareas t
+    JOIN cultivos c ON c.id = t.cultivo_id
+    WHERE c.estado = 'ACTIVO' AND t.realizada = false
+    AND t.fecha_vencimiento IS NOT NULL AND t.fecha_vencimiento < :ahora
+    """, nativeQuery = true)
+    List<Integer> findIdsConDecaimiento(@Param("ahora") LocalDateTime ahora);
+
+    // Días vencidos sin realizar por cultivo y tipo desde la última evaluación de su salud: cada
+    // tarea cuenta desde su vencimiento (o la evaluación, si es posterior) hasta que se realizó o 'ahora'
+    @Query(value = """
+    SELECT t.cultivo_id AS "cultivoId", r.tipo AS "tipo",
+           CAST(SUM(EXTRACT(EPOCH FROM COALESCE(t.fecha_realizacion, :ahora)
+                - GREATEST(t.fecha_vencimiento, c.salud_evaluada_en))) / 86400 AS double precision) AS "dias"
+    FROM tareas t
+    JOIN cultivos c ON c.id = t.cultivo_id
+    JOIN reglas r ON r.id = t.regla_id
+    WHERE t.cultivo_id IN (:ids) AND c.estado = 'ACTIVO' AND t.fecha_vencimiento IS NOT NULL
+    AND (t.realizada = false OR t.fecha_realizacion IS NOT NULL)
+    AND COALESCE(t.fecha_realizacion, :ahora) > GREATEST(t.fecha_vencimiento, c.salud_evaluada_en)
+    GROUP BY t.cultivo_id, r.tipo
+    """, nativeQuery = true)
+    List<DiasVencidos> findDiasVencidos(@Param("ids") Collection<Integer> ids, @Param("ahora") LocalDateTime ahora);
+
+    // Backfill: cultivos anteriores a la evaluación perezosa parten de su salud guardada
+    @Modifying
+    @Query("UPDATE Cultivo c SET c.saludEvaluadaEn = :ahora WHERE c.saludEvaluadaEn IS NULL")
+    int inicializarSaludEvaluada(@Param("ahora") LocalDateTime ahora);
+
+    interface SaludActual {
+        Integer getId();
+        double getSaludRiego();
+        double getSaludFertilizacion();
+        double getSaludMantenimiento();
+    }
 
+    interface DiasVencidos {
+        Integer getCultivoId();
+        String getTipo();
+        double getDias();
+    }
 }
@@ -0,0 +1,33 @@
+package com.cultivapp.cultivapp.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.cultivapp.cultivapp.models.CursorNotificacion;
+
+@Repository
+public interface CursorNotificacionRepository extends JpaRepository<CursorNotificacion, Integer> {
+
+    // Los cursores solo avanzan: un upsert con GREATEST, seguro ante peticiones concurrentes.
+    // Un usuario inexistente no inserta nada
+    @Modifying
+    @Query(value = """
+    INSERT INTO cursores_notificacion (usuario_id, leida_hasta, borrada_hasta)
+    SELECT u.id, :hasta, 0 FROM usuarios u WHERE u.id = :usuarioId
+    ON CONFLICT (usuario_id) DO UPDATE
+    SET leida_hasta = GREATEST(cursores_notificacion.leida_hasta, EXCLUDED.leida_hasta)
+    """, nativeQuery = true)
+    int avanzarLeida(@Param("usuarioId") Integer usuarioId, @Param("hasta") int hasta);
+
+    @Modifying
+    @Query(value = """
+    INSERT INTO cursores_notificacion (usuario_id, leida_hasta, borrada_hasta)
+    SELECT u.id, 0, :hasta FROM usuarios u WHERE u.id = :usuarioId
+    ON CONFLICT (usuario_id) DO UPDATE
+    SET borrada_hasta = GREATEST(cursores_notificacion.borrada_hasta, EXCLUDED.borrada_hasta)
+    """, nativeQuery = true)
+    int avanzarBorrada(@Param("usuarioId") Integer usuarioId, @Param("hasta") int hasta);
+}
@@ -0,0 +1,47 @@
+package com.cultivapp.cultivapp.repositories;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.cultivapp.cultivapp.models.EjecucionProgramada;
+import com.cultivapp.cultivapp.models.enums.EstadoEjecucion;
+import com.cultivapp.cultivapp.models.enums.TipoEjecucion;
+
+@Repository
+public interface EjecucionProgramadaRepository extends JpaRepository<EjecucionProgramada, Integer> {
+
+    List<EjecucionProgramada> findTop20ByOrderByIdDesc();
+
+    List<EjecucionProgramada> findByEstadoOrderById(EstadoEjecucion estado);
+
+    Optional<EjecucionProgramada> findFirstByTipoAndEstadoOrderByFechaFinDesc(TipoEjecucion tipo, EstadoEjecucion estado);
+
+    // Chunks can finish out of order: the checkpoint only moves forward
+    @Modifying
+    @Query("""
+    UPDATE EjecucionProgramada e SET
+        e.fase = :fase,
+        e.ultimoCultivoId = GREATEST(COALESCE(e.ultimoCultivoId, 0), :checkpoint),
+        e.cultivosProcesados = e.cultivosProcesados + :cultivos,
+        e.tareasVencidas = e.tareasVencidas + :vencidas,
+        e.tareasCreadas = e.tareasCreadas + :creadas,
+        e.cambiosEtapa = e.cambiosEtapa + :cambios,
+        e.fechaActualizacion = :ahora
+    WHERE e.id = :id
+    """)
+    int registrarAvance(@Param("id") Integer id,
+                        @Param("fase") String fase,
+                        @Param("checkpoint") Integer checkpoint,
+                        @Param("cultivos") int cultivos,
+                        @Param("vencidas") int vencidas,
+                        @Param("creadas") int creadas,
+                        @Param("cambios") int cambios,
+                        @Param("ahora") LocalDateTime ahora);
+}
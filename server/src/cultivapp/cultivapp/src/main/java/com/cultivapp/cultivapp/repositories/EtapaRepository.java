@@ -1,5 +1,6 @@
 package com.cultivapp.cultivapp.repositories;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,6 +28,14 @@ public interface EtapaRepository extends JpaRepository<Etapa, Integer> {
     """)
     Optional<Etapa> findEtapaActualConReglas(@Param("especieId") Integer especieId, @Param("orden") Short orden);
 
+    // Todas las etapas con sus reglas, para construir los modelos de ModeloEspecieCache
+    @Query("SELECT DISTINCT e FROM Etapa e LEFT JOIN FETCH e.reglas ORDER BY e.orden")
+    List<Etapa> findAllConReglas();
+
+    // Todas las etapas (con sus reglas) de varias especies en una sola consulta
+    @Query("SELECT e FROM Etapa e LEFT JOIN FETCH e.reglas WHERE e.especie.id IN :especieIds ORDER BY e.orden")
+    List<Etapa> findConReglasByEspecieIds(@Param("especieIds") Collection<Integer> especieIds);
+
     @Query("SELECT e FROM Etapa e WHERE e.especie.id = :especieId AND e.orden = :orden")
     Etapa findByEspecieIdAndOrden(@Param("especieId") Integer especieId, @Param("orden") short orden);
 
@@ -0,0 +1,48 @@
+package com.cultivapp.cultivapp.repositories;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.cultivapp.cultivapp.models.EventoOutbox;
+
+@Repository
+public interface EventoOutboxRepository extends JpaRepository<EventoOutbox, Long> {
+
+    // Lote más antiguo pendiente, bloqueado hasta el commit del despacho. SKIP LOCKED: otro
+    // despachador (otra instancia) toma el lote siguiente en lugar de esperar
+    @Query(value = """
+    SELECT * FROM outbox_eventos
+    WHERE fecha_aparcado IS NULL
+    ORDER BY id
+    LIMIT :limite
+    FOR UPDATE SKIP LOCKED
+    """, nativeQuery = true)
+    List<EventoOutbox> findLoteParaDespachar(@Param("limite") int limite);
+
+    // Ids del lote pendiente sin bloquear: tras fallar un lote se reintenta evento por evento
+    @Query(value = """
+    SELECT id FROM outbox_eventos
+    WHERE fecha_aparcado IS NULL
+    ORDER BY id
+    LIMIT :limite
+    """, nativeQuery = true)
+    List<Long> findIdsPendientes(@Param("limite") int limite);
+
+    @Query(value = """
+    SELECT * FROM outbox_eventos
+    WHERE id = :id AND fecha_aparcado IS NULL
+    FOR UPDATE SKIP LOCKED
+    """, nativeQuery = true)
+    Optional<EventoOutbox> findParaDespachar(@Param("id") Long id);
+
+    @Modifying
+    @Query("DELETE FROM EventoOutbox e WHERE e.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,63 @@
+package com.cultivapp.cultivapp.repositories;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.cultivapp.cultivapp.models.NotificacionGlobal;
+
+@Repository
+public interface NotificacionGlobalRepository extends JpaRepository<NotificacionGlobal, Integer> {
+
+    // Avisos enviados desde 'desde' (registro del usuario) que el usuario no ha borrado:
+    // posteriores a su cursor de borrado y no descartados uno a uno
+    @Query("""
+    SELECT g FROM NotificacionGlobal g
+    WHERE g.fecha >= :desde AND g.id > :borradaHasta
+    AND NOT EXISTS (SELECT 1 FROM AvisoDescartado d WHERE d.usuarioId = :usuarioId AND d.globalId = g.id)
+    ORDER BY g.id
+    """)
+    List<NotificacionGlobal> findVisibles(@Param("usuarioId") Integer usuarioId,
+                                          @Param("desde") LocalDateTime desde,
+                                          @Param("borradaHasta") int borradaHasta);
+
+    // Página del feed: avisos visibles anteriores a (fecha, id) del feed, donde su id es el negado
+    // (a igual fecha, id de feed menor es id de aviso mayor)
+    @Query("""
+    SELECT g FROM NotificacionGlobal g
+    WHERE g.fecha >= :desde AND g.id > :borradaHasta
+    AND (g.fecha < :fecha OR (g.fecha = :fecha AND g.id > :idAviso))
+    AND NOT EXISTS (SELECT 1 FROM AvisoDescartado d WHERE d.usuarioId = :usuarioId AND d.globalId = g.id)
+    ORDER BY g.fecha DESC, g.id ASC
+    """)
+    List<NotificacionGlobal> findPaginaAntesDe(@Param("usuarioId") Integer usuarioId,
+                                               @Param("desde") LocalDateTime desde,
+                                               @Param("borradaHasta") int borradaHasta,
+                                               @Param("fecha") LocalDateTime fecha,
+                                               @Param("idAviso") int idAviso,
+                                               Pageable pagina);
+
+    // Avisos sin leer del usuario, sin cargar entidades: enviados desde su registro y posteriores
+    // a sus cursores de lectura y borrado, y no descartados uno a uno
+    @Query(value = """
+    SELECT COUNT(*) FROM notificaciones_globales g
+    JOIN usuarios u ON u.id = :usuarioId
+    LEFT JOIN cursores_notificacion c ON c.usuario_id = u.id
+    WHERE g.fecha >= COALESCE(u.fecha_registro, g.fecha)
+    AND g.id > GREATEST(COALESCE(c.leida_hasta, 0), COALESCE(c.borrada_hasta, 0))
+    AND NOT EXISTS (SELECT 1 FROM avisos_descartados d WHERE d.usuario_id = u.id AND d.global_id = g.id)
+    """, nativeQuery = true)
+    long countNoLeidas(@Param("usuarioId") Integer usuarioId);
+
+    @Query("SELECT COALESCE(MAX(g.id), 0) FROM NotificacionGlobal g")
+    int findUltimoId();
+
+    // Último aviso enviado antes de 'fecha' (0 si no hay)
+    @Query("SELECT COALESCE(MAX(g.id), 0) FROM NotificacionGlobal g WHERE g.fecha < :fecha")
+    int findUltimoIdAntesDe(@Param("fecha") LocalDateTime fecha);
+}
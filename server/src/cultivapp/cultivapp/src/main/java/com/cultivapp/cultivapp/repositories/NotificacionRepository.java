@@ -1,8 +1,13 @@
 package com.cultivapp.cultivapp.repositories;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.cultivapp.cultivapp.models.Notificacion;
@@ -13,6 +18,54 @@ import com.cultivapp.cultivapp.models.Notificacion;
 public interface NotificacionRepository extends JpaRepository<Notificacion, Integer> {
       List<Notificacion> findByUsuarioId(Integer usuarioId);
 
-      void deleteByUsuarioId(Integer usuarioId);
-}
+      // Operaciones en bloque: una sola sentencia, sin cargar entidades
+      @Modifying
+      @Query("DELETE FROM Notificacion n WHERE n.usuario.id = :usuarioId")
+      int deleteByUsuarioId(@Param("usuarioId") Integer usuarioId);
+
+      @Modifying
+      @Query("UPDATE Notificacion n SET n.leida = true WHERE n.usuario.id = :usuarioId AND n.leida = false")
+      int marcarTodasLeidas(@Param("usuarioId") Integer usuarioId);
+
+      @Modifying
+      @Query("""
+      UPDATE Notificacion n SET n.leida = true
+      WHERE n.usuario.id = :usuarioId AND n.id IN :ids AND n.leida = false
+      """)
+      int marcarLeidas(@Param("usuarioId") Integer usuarioId, @Param("ids") Collection<Integer> ids);
+
+      @Modifying
+      @Query("DELETE FROM Notificacion n WHERE n.usuario.id = :usuarioId AND n.leida = true AND n.fecha < :antesDe")
+      int deleteLeidasAntesDe(@Param("usuarioId") Integer usuarioId, @Param("antesDe") LocalDateTime antesDe);
 
+      // Página del feed: las 'limite' notificaciones anteriores a (fecha, id), de la más reciente
+      // a la más antigua. La comparación de filas recorre idx_notificaciones_usuario_fecha
+      @Query(value = """
+      SELECT * FROM notificaciones
+      WHERE usuario_id = :usuarioId AND (fecha, id) < (:fecha, :id)
+      ORDER BY fecha DESC, id DESC
+      LIMIT :limite
+      """, nativeQuery = true)
+      List<Notificacion> findPaginaAntesDe(@Param("usuarioId") Integer usuarioId,
+                                           @Param("fecha") LocalDateTime fecha,
+                                           @Param("id") Integer id,
+                                           @Param("limite") int limite);
+
+      @Query("SELECT COUNT(n) FROM Notificacion n WHERE n.usuario.id = :usuarioId AND n.leida = false")
+      long countNoLeidas(@Param("usuarioId") Integer usuarioId);
+
+      // Purga por retención: un lote de las más antiguas anteriores a 'antesDe' según
+      // idx_notificaciones_leida_fecha. Las filas bloqueadas por otra transacción se saltan
+      @Modifying
+      @Query(value = """
+      DELETE FROM notificaciones WHERE id IN (
+          SELECT id FROM notificaciones
+          WHERE leida = :leida AND fecha < :antesDe
+          ORDER BY fecha
+          LIMIT :lote
+          FOR UPDATE SKIP LOCKED)
+      """, nativeQuery = true)
+      int purgarAntesDe(@Param("leida") boolean leida,
+                        @Param("antesDe") LocalDateTime antesDe,
+                        @Param("lote") int lote);
+}
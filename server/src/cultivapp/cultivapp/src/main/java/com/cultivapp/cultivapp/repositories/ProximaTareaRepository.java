@@ -0,0 +1,106 @@
+package com.cultivapp.cultivapp.repositories;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.cultivapp.cultivapp.models.ProximaTarea;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface ProximaTareaRepository extends JpaRepository<ProximaTarea, Integer> {
+
+    Optional<ProximaTarea> findByCultivoIdAndReglaId(Integer cultivoId, Integer reglaId);
+
+    // Las filas quedan bloqueadas: el motor en tiempo real y el job nocturno no duplican tareas
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+    SELECT p FROM ProximaTarea p
+    JOIN FETCH p.cultivo c
+    JOIN FETCH c.usuario
+    JOIN FETCH p.regla
+    WHERE p.fechaProxima <= :ahora AND c.id BETWEEN :desde AND :hasta
+    ORDER BY c.id
+    """)
+    List<ProximaTarea> findPendientesEntre(@Param("ahora") LocalDateTime ahora,
+                                           @Param("desde") Integer desde,
+                                           @Param("hasta") Integer hasta);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+    SELECT p FROM ProximaTarea p
+    JOIN FETCH p.cultivo c
+    JOIN FETCH c.usuario
+    JOIN FETCH p.regla r
+    WHERE c.id = :cultivoId AND r.id = :reglaId
+    AND p.fechaProxima <= :ahora AND c.estado = 'ACTIVO'
+    """)
+    Optional<ProximaTarea> findPendienteBloqueada(@Param("cultivoId") Integer cultivoId,
+                                                  @Param("reglaId") Integer reglaId,
+                                                  @Param("ahora") LocalDateTime ahora);
+
+    // Todos los vencimientos, sin cargar entidades, para construir la cola en memoria
+    @Query("SELECT p.cultivo.id AS cultivoId, p.regla.id AS reglaId, p.fechaProxima AS fechaProxima FROM ProximaTarea p")
+    List<Vencimiento> findVencimientos();
+
+    // Los vencimientos de unos cultivos, para reencolar solo sus pares tras un cambio
+    @Query("SELECT p.cultivo.id AS cultivoId, p.regla.id AS reglaId, p.fechaProxima AS fechaProxima FROM ProximaTarea p WHERE p.cultivo.id IN :cultivoIds")
+    List<Vencimiento> findVencimientosByCultivoIds(@Param("cultivoIds") Collection<Integer> cultivoIds);
+
+    @Query("SELECT p.cultivo.id AS cultivoId, p.regla.id AS reglaId, p.fechaProxima AS fechaProxima FROM ProximaTarea p WHERE p.cultivo.usuario.id = :usuarioId")
+    List<Vencimiento> findVencimientosByUsuarioId(@Param("usuarioId") Integer usuarioId);
+
+    @Modifying
+    @Query("DELETE FROM ProximaTarea p WHERE p.regla.id = :reglaId")
+    int deleteByReglaId(@Param("reglaId") Integer reglaId);
+
+    // Borra los pares de los cultivos [desde, hasta] que ya no pertenecen a la etapa actual de un cultivo activo
+    @Modifying
+    @Query(value = """
+    DELETE FROM proximas_tareas p
+    WHERE p.cultivo_id BETWEEN :desde AND :hasta
+    AND NOT EXISTS (
+        SELECT 1 FROM cultivos c
+        JOIN etapas e ON e.especie_id = c.especie_id AND e.orden = c.etapa_actual
+        JOIN etapas_reglas er ON er.etapa_id = e.id
+        WHERE c.id = p.cultivo_id AND er.regla_id = p.regla_id AND c.estado = 'ACTIVO'
+    )
+    """, nativeQuery = true)
+    int eliminarObsoletas(@Param("desde") Integer desde, @Param("hasta") Integer hasta);
+
+    // Crea los pares que faltan de los cultivos [desde, hasta] a partir de la última tarea (o ahora si no hay ninguna)
+    @Modifying
+    @Query(value = """
+    INSERT INTO proximas_tareas (cultivo_id, regla_id, fecha_proxima)
+    SELECT c.id, er.regla_id,
+           COALESCE(MAX(t.fecha_vencimiento) + make_interval(days => r.intervalo_dias), :ahora)
+    FROM cultivos c
+    JOIN etapas e ON e.especie_id = c.especie_id AND e.orden = c.etapa_actual
+    JOIN etapas_reglas er ON er.etapa_id = e.id
+    JOIN reglas r ON r.id = er.regla_id
+    LEFT JOIN tareas t ON t.cultivo_id = c.id AND t.regla_id = er.regla_id
+    WHERE c.estado = 'ACTIVO' AND c.id BETWEEN :desde AND :hasta
+    AND NOT EXISTS (
+        SELECT 1 FROM proximas_tareas p WHERE p.cultivo_id = c.id AND p.regla_id = er.regla_id
+    )
+    GROUP BY c.id, er.regla_id, r.intervalo_dias
+    """, nativeQuery = true)
+    int sembrarFaltantes(@Param("ahora") LocalDateTime ahora,
+                         @Param("desde") Integer desde,
+                         @Param("hasta") Integer hasta);
+
+    interface Vencimiento {
+        Integer getCultivoId();
+        Integer getReglaId();
+        LocalDateTime getFechaProxima();
+    }
+}
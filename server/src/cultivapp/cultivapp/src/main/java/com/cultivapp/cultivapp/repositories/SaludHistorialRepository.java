@@ -0,0 +1,35 @@
+package com.cultivapp.cultivapp.repositories;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.cultivapp.cultivapp.models.SaludHistorial;
+
+@Repository
+public interface SaludHistorialRepository extends JpaRepository<SaludHistorial, Long> {
+
+    // Última fila base (valores absolutos) anterior a una fecha: punto de partida para reconstruir la serie
+    @Query("""
+    SELECT h.fecha FROM SaludHistorial h
+    WHERE h.cultivo.id = :cultivoId AND h.base = true AND h.fecha <= :fecha
+    ORDER BY h.fecha DESC, h.id DESC
+    LIMIT 1
+    """)
+    Optional<LocalDateTime> findUltimaBaseAntesDe(@Param("cultivoId") Integer cultivoId,
+                                                  @Param("fecha") LocalDateTime fecha);
+
+    @Query("""
+    SELECT h FROM SaludHistorial h
+    WHERE h.cultivo.id = :cultivoId AND h.fecha >= :desde AND h.fecha < :hasta
+    ORDER BY h.fecha, h.id
+    """)
+    List<SaludHistorial> findSerie(@Param("cultivoId") Integer cultivoId,
+                                   @Param("desde") LocalDateTime desde,
+                                   @Param("hasta") LocalDateTime hasta);
+}
@@ -4,6 +4,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -16,4 +17,40 @@ public interface TareaRepository extends JpaRepository<Tarea,Integer>{
     LocalDateTime findUltimaFecha(@Param("cultivoId") Integer cultivoId, @Param("reglaId") Integer reglaId);
 
     List<Tarea> findByCultivoId(Integer cultivoId);
-}   
\ No newline at end of file
+
+    // Último vencimiento por (cultivo, regla) de los cultivos activos de un usuario
+    @Query("""
+    SELECT t.cultivo.id AS cultivoId, t.regla.id AS reglaId, MAX(t.fechaVencimiento) AS ultimaFecha
+    FROM Tarea t
+    WHERE t.cultivo.usuario.id = :usuarioId AND t.cultivo.estado = 'ACTIVO'
+    GROUP BY t.cultivo.id, t.regla.id
+    """)
+    List<UltimaTarea> findUltimasByUsuarioId(@Param("usuarioId") Integer usuarioId);
+
+    // Marca en bloque las tareas vencidas; las filas que no cambian no se tocan
+    @Modifying
+    @Query("""
+    UPDATE Tarea t SET t.vencida = true, t.activa = false
+    WHERE t.realizada = false AND t.vencida = false AND t.fechaVencimiento < :ahora
+    AND t.cultivo.id IN (SELECT c.id FROM Cultivo c WHERE c.estado = 'ACTIVO' AND c.id BETWEEN :desde AND :hasta)
+    """)
+    int marcarVencidas(@Param("ahora") LocalDateTime ahora,
+                       @Param("desde") Integer desde,
+                       @Param("hasta") Integer hasta);
+
+    // Marca la tarea como realizada solo si aún no lo estaba: de dos ejecuciones concurrentes
+    // de la misma tarea solo una cambia la fila (y aplica su efecto en la salud)
+    @Modifying
+    @Query("""
+    UPDATE Tarea t SET t.realizada = true, t.activa = false, t.fechaRealizacion = :ahora
+    WHERE t.id = :id AND t.realizada = false
+    """)
+    int marcarRealizada(@Param("id") Integer tareaId, @Param("ahora") LocalDateTime ahora);
+
+    interface UltimaTarea {
+        Integer getCultivoId();
+        Integer getReglaId();
+        LocalDateTime getUltimaFecha();
+    }
+
+}
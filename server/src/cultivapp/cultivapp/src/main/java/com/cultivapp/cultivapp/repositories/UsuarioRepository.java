@@ -1,8 +1,12 @@
 package com.cultivapp.cultivapp.repositories;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.cultivapp.cultivapp.models.Usuario;
@@ -10,4 +14,8 @@ import com.cultivapp.cultivapp.models.Usuario;
 @Repository
 public interface UsuarioRepository extends JpaRepository<Usuario, Integer> {
     Optional<Usuario> findByEmail(String email);
+
+    // Solo los ids (sin cargar los usuarios) de los que siguen existiendo
+    @Query("SELECT u.id FROM Usuario u WHERE u.id IN :ids")
+    List<Integer> findIdsExistentes(@Param("ids") Collection<Integer> ids);
 }
\ No newline at end of file
@@ -16,6 +16,8 @@ import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.cultivapp.cultivapp.auth.JwtService;
+
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
@@ -39,6 +41,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private static final String AUTHORIZATION_HEADER = "Authorization";
     private static final String BEARER_PREFIX = "Bearer ";
 
+    // EventSource cannot send headers: only the notification stream takes its token from ?token=
+    private static final String STREAM_PATH = "/api/notificaciones/stream";
+    private static final String STREAM_TOKEN_PARAM = "token";
+
     public JwtAuthenticationFilter(@Value("${security.jwt.secret:cultivapp-dev-secret-please-change-32-bytes-min}") String secret) {
         this.jwtSecretKey = Keys.hmacShaKeyFor(secret.getBytes());
     }
@@ -53,10 +59,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         try {
             String jwt = extractJwtFromRequest(request);
+            boolean fromQuery = false;
+            if (jwt == null && isStreamRequest(request)) {
+                jwt = request.getParameter(STREAM_TOKEN_PARAM);
+                fromQuery = jwt != null;
+            }
             log.info("JWT token extracted: {}", (jwt != null ? "YES (length: " + jwt.length() + ")" : "NO"));
 
             if (StringUtils.hasText(jwt) && validateToken(jwt)) {
                 Claims claims = extractClaims(jwt);
+                if (!usoPermitido(claims, fromQuery, request)) {
+                    log.warn("JWT rejected for {} {}: stream tokens only open the notification stream", method, requestUri);
+                    filterChain.doFilter(request, response);
+                    return;
+                }
                 String email = claims.getSubject();
                 String role = claims.get("role", String.class);
 
@@ -100,6 +116,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         return null;
     }
 
+    private boolean isStreamRequest(HttpServletRequest request) {
+        return "GET".equals(request.getMethod()) && STREAM_PATH.equals(request.getRequestURI());
+    }
+
+    // A token from the URL must be a stream token, and a stream token is only good for the stream
+    private boolean usoPermitido(Claims claims, boolean fromQuery, HttpServletRequest request) {
+        boolean streamToken = JwtService.USO_STREAM.equals(claims.get(JwtService.CLAIM_USO, String.class));
+        if (fromQuery) {
+            return streamToken;
+        }
+        return !streamToken || isStreamRequest(request);
+    }
+
     private boolean validateToken(String token) {
         try {
             Jwts.parserBuilder()
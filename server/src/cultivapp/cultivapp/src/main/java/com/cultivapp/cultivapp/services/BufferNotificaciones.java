@@ -0,0 +1,130 @@
+package com.cultivapp.cultivapp.services;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cultivapp.cultivapp.models.Notificacion;
+import com.cultivapp.cultivapp.repositories.UsuarioRepository;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Buffer de escritura diferida de las notificaciones de "tarea nueva".
+ *
+ * El generador solo publica TareaGeneradaEvent; tras su commit la tarea se suma al
+ * resumen pendiente de su dueño. Un volcado en segundo plano (y el final de cada corrida
+ * nocturna) escribe una notificación por usuario, p. ej. "5 nuevas tareas en 3 cultivos",
+ * insertadas en lote solo con referencias al id del usuario: no se carga ningún usuario
+ * ni colección de notificaciones. Los resúmenes pendientes viven en memoria; una caída
+ * pierde la notificación, nunca la tarea.
+ */
+@Service
+@RequiredArgsConstructor
+public class BufferNotificaciones {
+
+    private static final Logger log = LoggerFactory.getLogger(BufferNotificaciones.class);
+
+    private static final int LOTE = 1_000;
+
+    private final NotificacionService notificacionService;
+    private final UsuarioRepository usuarioRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Integer, Resumen> pendientes = new ConcurrentHashMap<>();
+
+    // Tareas nuevas de un usuario desde el último volcado, con los cultivos en que se generaron
+    record Resumen(int tareas, Map<Integer, String> cultivos) {
+
+        static Resumen de(TareaGeneradaEvent event) {
+            Map<Integer, String> cultivos = new LinkedHashMap<>();
+            cultivos.put(event.cultivoId(), event.cultivo());
+            return new Resumen(1, cultivos);
+        }
+
+        Resumen sumar(Resumen otro) {
+            Map<Integer, String> cultivos = new LinkedHashMap<>(this.cultivos);
+            cultivos.putAll(otro.cultivos);
+            return new Resumen(tareas + otro.tareas, cultivos);
+        }
+
+        String mensaje() {
+            if (tareas == 1) {
+                return "Nueva tarea generada en el cultivo " + cultivos.values().iterator().next();
+            }
+            if (cultivos.size() == 1) {
+                return tareas + " nuevas tareas en el cultivo " + cultivos.values().iterator().next();
+            }
+            return tareas + " nuevas tareas en " + cultivos.size() + " cultivos";
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTareaGenerada(TareaGeneradaEvent event) {
+        pendientes.merge(event.usuarioId(), Resumen.de(event), Resumen::sumar);
+    }
+
+    /**
+     * Escribe los resúmenes pendientes, una notificación por usuario.
+     *
+     * @return notificaciones escritas
+     */
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${cultivapp.notificaciones.buffer.intervalo-ms:10000}")
+    public synchronized int volcar() {
+        if (pendientes.isEmpty()) {
+            return 0;
+        }
+        Map<Integer, Resumen> resumenes = new LinkedHashMap<>();
+        for (Integer usuarioId : pendientes.keySet()) {
+            Resumen resumen = pendientes.remove(usuarioId);
+            if (resumen != null) {
+                resumenes.put(usuarioId, resumen);
+            }
+        }
+
+        List<Integer> usuarioIds = new ArrayList<>(resumenes.keySet());
+        int escritas = 0;
+        for (int i = 0; i < usuarioIds.size(); i += LOTE) {
+            List<Integer> lote = usuarioIds.subList(i, Math.min(usuarioIds.size(), i + LOTE));
+            try {
+                Integer filas = transactionTemplate.execute(status -> escribirLote(lote, resumenes));
+                escritas += filas != null ? filas : 0;
+            } catch (RuntimeException e) {
+                // Se reintentan en el siguiente volcado, sumadas a lo que llegue mientras tanto
+                lote.forEach(id -> pendientes.merge(id, resumenes.get(id), Resumen::sumar));
+                log.warn("No se pudieron escribir las notificaciones de {} usuarios: {}", lote.size(), e.getMessage());
+            }
+        }
+        log.debug("Notificaciones de tareas nuevas: {} resúmenes", escritas);
+        return escritas;
+    }
+
+    private int escribirLote(List<Integer> lote, Map<Integer, Resumen> resumenes) {
+        // Usuarios borrados desde que se generó la tarea: su resumen se descarta
+        Set<Integer> existentes = new HashSet<>(usuarioRepository.findIdsExistentes(lote));
+        List<Notificacion> notificaciones = new ArrayList<>();
+        for (Integer usuarioId : lote) {
+            if (existentes.contains(usuarioId)) {
+                notificaciones.add(Notificacion.builder()
+                    .mensaje(resumenes.get(usuarioId).mensaje())
+                    .usuario(usuarioRepository.getReferenceById(usuarioId))
+                    .build());
+            }
+        }
+        notificacionService.createNotificaciones(notificaciones);
+        return notificaciones.size();
+    }
+}
@@ -0,0 +1,172 @@
+package com.cultivapp.cultivapp.services;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.cultivapp.cultivapp.dto.CalendarioTareasDTO;
+import com.cultivapp.cultivapp.dto.CalendarioTareasDTO.TareaProyectada;
+import com.cultivapp.cultivapp.models.Cultivo;
+import com.cultivapp.cultivapp.models.Etapa;
+import com.cultivapp.cultivapp.models.Regla;
+import com.cultivapp.cultivapp.repositories.CultivoRepository;
+import com.cultivapp.cultivapp.repositories.EtapaRepository;
+import com.cultivapp.cultivapp.repositories.ProximaTareaRepository;
+import com.cultivapp.cultivapp.repositories.TareaRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Proyección de solo lectura del calendario futuro de tareas de los cultivos activos
+ * de un usuario.
+ *
+ * Todo se calcula en memoria a partir de cuatro consultas en bloque (cultivos, etapas con
+ * sus reglas, la última tarea por regla y el índice de próximas tareas); no se escribe
+ * nada. La proyección sigue la misma cadencia que el generador (ProximaTareaService) y
+ * supone que cada etapa termina exactamente al cumplir su duracionDias.
+ */
+@Service
+@RequiredArgsConstructor
+public class CalendarioTareasService {
+
+    public static final int MAX_DIAS = 366;
+
+    private final CultivoRepository cultivoRepository;
+    private final EtapaRepository etapaRepository;
+    private final TareaRepository tareaRepository;
+    private final ProximaTareaRepository proximaTareaRepository;
+
+    @Transactional(readOnly = true)
+    public CalendarioTareasDTO proyectar(Integer usuarioId, int dias) {
+        if (dias < 1 || dias > MAX_DIAS) {
+            throw new IllegalArgumentException("El número de días debe estar entre 1 y " + MAX_DIAS);
+        }
+        LocalDateTime desde = LocalDateTime.now();
+        LocalDateTime hasta = desde.plusDays(dias);
+        List<TareaProyectada> tareas = new ArrayList<>();
+
+        List<Cultivo> cultivos = cultivoRepository.findActivosByUsuarioId(usuarioId);
+        if (!cultivos.isEmpty()) {
+            Set<Integer> especieIds = cultivos.stream()
+                .map(c -> c.getEspecie().getId())
+                .collect(Collectors.toSet());
+            Map<Integer, List<Etapa>> etapasPorEspecie = etapaRepository.findConReglasByEspecieIds(especieIds).stream()
+                .collect(Collectors.groupingBy(e -> e.getEspecie().getId()));
+
+            Map<Integer, Map<Integer, LocalDateTime>> ultimas = new HashMap<>();
+            for (TareaRepository.UltimaTarea fila : tareaRepository.findUltimasByUsuarioId(usuarioId)) {
+                if (fila.getUltimaFecha() != null) {
+                    ultimas.computeIfAbsent(fila.getCultivoId(), id -> new HashMap<>())
+                        .put(fila.getReglaId(), fila.getUltimaFecha());
+                }
+            }
+
+            // Próxima ocurrencia ya programada (p. ej. tras ejecutar una tarea) de las reglas vigentes
+            Map<Integer, Map<Integer, LocalDateTime>> proximas = new HashMap<>();
+            for (ProximaTareaRepository.Vencimiento fila : proximaTareaRepository.findVencimientosByUsuarioId(usuarioId)) {
+                proximas.computeIfAbsent(fila.getCultivoId(), id -> new HashMap<>())
+                    .put(fila.getReglaId(), fila.getFechaProxima());
+            }
+
+            for (Cultivo cultivo : cultivos) {
+                proyectarCultivo(cultivo,
+                    etapasPorEspecie.getOrDefault(cultivo.getEspecie().getId(), List.of()),
+                    new HashMap<>(ultimas.getOrDefault(cultivo.getId(), Map.of())),
+                    proximas.getOrDefault(cultivo.getId(), Map.of()),
+                    desde, hasta, tareas);
+            }
+            tareas.sort(Comparator.comparing(TareaProyectada::getFechaProgramada)
+                .thenComparing(TareaProyectada::getCultivoId));
+        }
+
+        return CalendarioTareasDTO.builder()
+            .usuarioId(usuarioId)
+            .desde(desde)
+            .hasta(hasta)
+            .tareas(tareas)
+            .build();
+    }
+
+    /**
+     * Recorre las etapas del cultivo desde la actual y proyecta las ocurrencias de cada
+     * regla dentro de [desde, hasta). 'ultimos' guarda el último vencimiento por regla y
+     * se actualiza a medida que se proyecta; 'proximas' siembra la etapa actual.
+     */
+    private void proyectarCultivo(Cultivo cultivo, List<Etapa> etapas, Map<Integer, LocalDateTime> ultimos,
+                                  Map<Integer, LocalDateTime> proximas,
+                                  LocalDateTime desde, LocalDateTime hasta, List<TareaProyectada> tareas) {
+        Short actual = cultivo.getEtapaActual();
+        if (actual == null) {
+            return;
+        }
+
+        LocalDateTime inicio = cultivo.getFechaInicioEtapa() != null ? cultivo.getFechaInicioEtapa() : desde;
+        for (Etapa etapa : etapas) {
+            if (etapa.getOrden() == null || etapa.getOrden() < actual) {
+                continue;
+            }
+            if (!inicio.isBefore(hasta)) {
+                break;
+            }
+
+            // Sin duración la etapa no termina; si ya se cumplió, CicloVidaScheduler la avanza en su próxima corrida
+            LocalDateTime fin = etapa.getDuracionDias() != null ? inicio.plusDays(etapa.getDuracionDias()) : hasta;
+            if (fin.isBefore(desde)) {
+                fin = desde;
+            }
+
+            LocalDateTime ventanaDesde = inicio.isAfter(desde) ? inicio : desde;
+            LocalDateTime ventanaHasta = fin.isBefore(hasta) ? fin : hasta;
+            boolean esActual = etapa.getOrden().equals(actual);
+            for (Regla regla : etapa.getReglas()) {
+                LocalDateTime semilla = esActual ? proximas.get(regla.getId()) : null;
+                proyectarRegla(cultivo, etapa, regla, ultimos, semilla, ventanaDesde, ventanaHasta, tareas);
+            }
+            inicio = fin;
+        }
+    }
+
+    private void proyectarRegla(Cultivo cultivo, Etapa etapa, Regla regla, Map<Integer, LocalDateTime> ultimos,
+                                LocalDateTime semilla, LocalDateTime ventanaDesde, LocalDateTime ventanaHasta,
+                                List<TareaProyectada> tareas) {
+        Integer intervalo = regla.getIntervaloDias();
+        if (intervalo == null || intervalo <= 0) {
+            return;
+        }
+
+        // La semilla del índice si existe; si no, la misma que usa sembrarFaltantes:
+        // último vencimiento + intervalo, o el momento en que la regla empieza a aplicar
+        LocalDateTime ultimo = ultimos.get(regla.getId());
+        LocalDateTime siguiente = semilla != null ? semilla
+            : ultimo != null ? ultimo.plusDays(intervalo) : ventanaDesde;
+        if (siguiente.isBefore(ventanaDesde)) {
+            siguiente = ventanaDesde;
+        }
+
+        while (siguiente.isBefore(ventanaHasta)) {
+            LocalDateTime vencimiento = siguiente.plusDays(intervalo);
+            tareas.add(TareaProyectada.builder()
+                .cultivoId(cultivo.getId())
+                .cultivoNombre(cultivo.getNombre())
+                .etapaOrden(etapa.getOrden())
+                .etapa(etapa.getNombre() != null ? etapa.getNombre().name() : null)
+                .reglaId(regla.getId())
+                .tipoRegla(regla.getTipo() != null ? regla.getTipo().name() : null)
+                .descripcionRegla(regla.getDescripcion())
+                .fechaProgramada(siguiente)
+                .fechaVencimiento(vencimiento)
+                .build());
+            ultimos.put(regla.getId(), vencimiento);
+            // Igual que ProximaTareaService.calcularSiguiente: un intervalo después del vencimiento
+            siguiente = vencimiento.plusDays(intervalo);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.cultivapp.cultivapp.services;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.cultivapp.cultivapp.dto.NotificacionDTO;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Pub/sub en proceso que envía las notificaciones nuevas a los clientes conectados por SSE.
+ *
+ * Cada stream abierto es un suscriptor con una cola acotada. Publicar solo ofrece a las
+ * colas de los suscriptores del usuario destino y nunca espera a la red; una tarea de
+ * vaciado por suscriptor (en un hilo virtual) escribe lo encolado. Un suscriptor que llena
+ * su cola dejó de leer: se expulsa y se cierra su stream, y el cliente reconecta y recarga
+ * su lista. Las notificaciones se publican tras el commit que las creó.
+ */
+@Component
+public class CanalNotificaciones {
+
+    private static final Logger log = LoggerFactory.getLogger(CanalNotificaciones.class);
+
+    private static final String EVENTO = "notificacion";
+
+    private final int capacidad;
+    private final int maxPorUsuario;
+    private final long timeoutMs;
+    private final Counter expulsados;
+
+    private final Map<Integer, List<Suscriptor>> suscriptores = new ConcurrentHashMap<>();
+    private final ExecutorService envios;
+
+    private record Suscriptor(Integer usuarioId, SseEmitter emitter, BlockingQueue<NotificacionDTO> cola,
+                              AtomicBoolean programado) {}
+
+    public CanalNotificaciones(@Value("${cultivapp.notificaciones.push.capacidad:100}") int capacidad,
+                               @Value("${cultivapp.notificaciones.push.max-por-usuario:5}") int maxPorUsuario,
+                               @Value("${cultivapp.notificaciones.push.timeout-ms:1800000}") long timeoutMs,
+                               MeterRegistry registry) {
+        this(capacidad, maxPorUsuario, timeoutMs, registry, Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    // Los tests pasan su propio ejecutor de envíos para controlar cuándo se vacían las colas
+    CanalNotificaciones(int capacidad, int maxPorUsuario, long timeoutMs, MeterRegistry registry,
+                        ExecutorService envios) {
+        this.envios = envios;
+        this.capacidad = capacidad;
+        this.maxPorUsuario = maxPorUsuario;
+        this.timeoutMs = timeoutMs;
+        Gauge.builder("cultivapp.notificaciones.push.suscriptores", this, CanalNotificaciones::getSuscriptores)
+            .description("Open notification streams")
+            .register(registry);
+        this.expulsados = Counter.builder("cultivapp.notificaciones.push.expulsados")
+            .description("Notification streams closed because the client stopped reading")
+            .register(registry);
+    }
+
+    /**
+     * Abre un stream para el usuario. Pasado el límite por usuario se cierra el stream
+     * más antiguo de ese usuario (normalmente una pestaña que quedó abierta).
+     */
+    public SseEmitter suscribir(Integer usuarioId) {
+        Suscriptor suscriptor = new Suscriptor(usuarioId, new SseEmitter(timeoutMs),
+            new ArrayBlockingQueue<>(capacidad), new AtomicBoolean(false));
+        suscriptor.emitter().onCompletion(() -> quitar(suscriptor));
+        suscriptor.emitter().onTimeout(() -> quitar(suscriptor));
+        suscriptor.emitter().onError(e -> quitar(suscriptor));
+
+        List<Suscriptor> delUsuario = suscriptores.compute(usuarioId, (id, lista) -> {
+            List<Suscriptor> nueva = lista != null ? lista : new CopyOnWriteArrayList<>();
+            nueva.add(suscriptor);
+            return nueva;
+        });
+        if (delUsuario.size() > maxPorUsuario) {
+            expulsar(delUsuario.get(0), "demasiadas conexiones");
+        }
+        return suscriptor.emitter();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotificacionesCreadas(NotificacionesCreadasEvent event) {
+        for (NotificacionesCreadasEvent.Entrega entrega : event.entregas()) {
+            if (entrega.usuarioId() == null) {
+                suscriptores.values().forEach(lista -> lista.forEach(s -> encolar(s, entrega.notificacion())));
+            } else {
+                List<Suscriptor> lista = suscriptores.get(entrega.usuarioId());
+                if (lista != null) {
+                    lista.forEach(s -> encolar(s, entrega.notificacion()));
+                }
+            }
+        }
+    }
+
+    // Comentario SSE periódico: mantiene viva la conexión en proxies y detecta clientes caídos
+    @Scheduled(fixedDelayString = "${cultivapp.notificaciones.push.latido-ms:25000}")
+    public void latido() {
+        suscriptores.values().forEach(lista -> lista.forEach(s -> envios.execute(() -> {
+            try {
+                s.emitter().send(SseEmitter.event().comment("latido"));
+            } catch (IOException | IllegalStateException e) {
+                quitar(s);
+            }
+        })));
+    }
+
+    public int getSuscriptores() {
+        return suscriptores.values().stream().mapToInt(List::size).sum();
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        suscriptores.values().forEach(lista -> lista.forEach(s -> s.emitter().complete()));
+        suscriptores.clear();
+        envios.shutdownNow();
+    }
+
+    private void encolar(Suscriptor suscriptor, NotificacionDTO notificacion) {
+        if (!suscriptor.cola().offer(notificacion)) {
+            expulsados.increment();
+            expulsar(suscriptor, "cola llena");
+            return;
+        }
+        if (suscriptor.programado().compareAndSet(false, true)) {
+            envios.execute(() -> vaciar(suscriptor));
+        }
+    }
+
+    // Escribe lo encolado; solo una tarea de vaciado por suscriptor a la vez
+    private void vaciar(Suscriptor suscriptor) {
+        try {
+            NotificacionDTO notificacion;
+            while ((notificacion = suscriptor.cola().poll()) != null) {
+                suscriptor.emitter().send(SseEmitter.event()
+                    .name(EVENTO)
+                    .id(String.valueOf(notificacion.getId()))
+                    .data(notificacion));
+            }
+        } catch (IOException | IllegalStateException e) {
+            quitar(suscriptor);
+            return;
+        } finally {
+            suscriptor.programado().set(false);
+        }
+        // Lo encolado entre el último poll y soltar la marca
+        if (!suscriptor.cola().isEmpty() && suscriptor.programado().compareAndSet(false, true)) {
+            envios.execute(() -> vaciar(suscriptor));
+        }
+    }
+
+    private void expulsar(Suscriptor suscriptor, String motivo) {
+        if (quitar(suscriptor)) {
+            log.info("Suscriptor SSE del usuario {} expulsado: {}", suscriptor.usuarioId(), motivo);
+            suscriptor.emitter().complete();
+        }
+    }
+
+    private boolean quitar(Suscriptor suscriptor) {
+        boolean[] quitado = new boolean[1];
+        suscriptores.computeIfPresent(suscriptor.usuarioId(), (id, lista) -> {
+            quitado[0] = lista.remove(suscriptor);
+            return lista.isEmpty() ? null : lista;
+        });
+        suscriptor.cola().clear();
+        return quitado[0];
+    }
+}
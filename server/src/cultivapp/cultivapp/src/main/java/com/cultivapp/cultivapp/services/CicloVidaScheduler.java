@@ -0,0 +1,289 @@
+package com.cultivapp.cultivapp.services;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cultivapp.cultivapp.models.EjecucionProgramada;
+import com.cultivapp.cultivapp.models.ProximaTarea;
+import com.cultivapp.cultivapp.models.enums.TipoEjecucion;
+import com.cultivapp.cultivapp.repositories.CultivoRepository;
+import com.cultivapp.cultivapp.repositories.ProximaTareaRepository;
+import com.cultivapp.cultivapp.repositories.TareaRepository;
+
+/**
+ * Ciclo de vida nocturno de los cultivos en una sola pasada: reemplaza a los antiguos
+ * EtapaScheduler (22:10) y TareaScheduler (22:12), que leían los cultivos dos veces y
+ * podían solaparse si el primero se alargaba.
+ */
+@Service
+public class CicloVidaScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(CicloVidaScheduler.class);
+
+    private static final String FASE_CICLO_VIDA = "CICLO_VIDA";
+
+    private final AtomicBoolean enCurso = new AtomicBoolean(false);
+
+    @Autowired
+    private CultivoRepository cultivoRepository;
+
+    @Autowired
+    private TareaRepository tareaRepository;
+
+    @Autowired
+    private ProximaTareaRepository proximaTareaRepository;
+
+    @Autowired
+    private ProximaTareaService proximaTareaService;
+
+    @Autowired
+    private CultivoService cultivoService;
+
+    @Autowired
+    private BufferNotificaciones bufferNotificaciones;
+
+    @Autowired
+    private EjecucionService ejecucionService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MetricasScheduler metricas;
+
+    @Value("${cultivapp.scheduler.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${cultivapp.scheduler.paralelismo:4}")
+    private int paralelismo;
+
+    /**
+     * Se ejecuta cada día (puedes ajustar el horario según lo necesites)
+     * Aquí se avanzan etapas, se vencen tareas y se crean nuevas tareas.
+     */
+    @Scheduled(cron = "0 10 22 * * *", zone = "America/Bogota")
+    public void ejecutarCicloVida() {
+        if (isEnCurso()) {
+            log.warn("Ciclo de vida omitido: ya hay una ejecución en curso");
+            return;
+        }
+        ejecutar(ejecucionService.iniciar(TipoEjecucion.CICLO_VIDA));
+    }
+
+    public boolean isEnCurso() {
+        return enCurso.get();
+    }
+
+    /**
+     * Ejecuta (o reanuda desde su checkpoint) una corrida registrada en el ledger.
+     *
+     * Los ids de los cultivos activos se leen una sola vez con un cursor y se agrupan
+     * en rangos de chunk-size; cada rango se despacha al pool en cuanto se completa y
+     * se procesa en su propia transacción. El checkpoint solo avanza hasta el último
+     * chunk anterior a cualquier fallo.
+     */
+    public void ejecutar(EjecucionProgramada ejecucion) {
+        Integer id = ejecucion.getId();
+        if (!enCurso.compareAndSet(false, true)) {
+            ejecucionService.fallar(id, "Ya hay una ejecución del ciclo de vida en curso");
+            return;
+        }
+
+        try {
+            LocalDateTime ahora = ejecucion.getFechaCorte();
+            Integer checkpoint = ejecucion.getUltimoCultivoId() != null ? ejecucion.getUltimoCultivoId() : 0;
+            long inicio = System.nanoTime();
+            if (checkpoint > 0) {
+                log.info("Reanudando ciclo de vida {} desde el cultivo {}", id, checkpoint);
+            }
+
+            Avance avance = new Avance();
+            List<CompletableFuture<ResultadoChunk>> futuros = new ArrayList<>();
+            ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, paralelismo));
+            ResultadoChunk total = ResultadoChunk.VACIO;
+            try {
+                // El cursor necesita una transacción abierta mientras se recorre
+                TransactionTemplate lectura = new TransactionTemplate(transactionManager);
+                lectura.setReadOnly(true);
+                lectura.executeWithoutResult(status -> {
+                    try (Stream<Integer> ids = cultivoRepository.streamIdsActivosDesde(checkpoint)) {
+                        int paso = Math.max(1, chunkSize);
+                        List<Integer> chunk = new ArrayList<>(paso);
+                        ids.forEach(cultivoId -> {
+                            chunk.add(cultivoId);
+                            if (chunk.size() == paso) {
+                                futuros.add(despachar(id, avance, chunk, ahora, pool));
+                                chunk.clear();
+                            }
+                        });
+                        if (!chunk.isEmpty()) {
+                            futuros.add(despachar(id, avance, chunk, ahora, pool));
+                        }
+                    }
+                });
+
+                for (CompletableFuture<ResultadoChunk> futuro : futuros) {
+                    total = total.sumar(futuro.join());
+                }
+            } finally {
+                pool.shutdown();
+            }
+
+            // Tareas nuevas de toda la corrida: una notificación resumen por usuario
+            metricas.notificacionesEmitidas(TipoEjecucion.CICLO_VIDA, bufferNotificaciones.volcar());
+
+            log.info("Ciclo de vida completado: {} chunks ({} fallidos), {} cultivos, {} cambios de etapa, "
+                    + "{} tareas vencidas, {} tareas nuevas en {} ms",
+                futuros.size(), total.fallidos(), total.cultivos(), total.cambios(),
+                total.vencidas(), total.tareas(), (System.nanoTime() - inicio) / 1_000_000);
+
+            if (total.fallidos() > 0) {
+                ejecucionService.fallar(id, total.fallidos() + " chunks fallaron; se puede reanudar desde el checkpoint");
+            } else {
+                ejecucionService.finalizar(id);
+                metricas.ejecucionExitosa(TipoEjecucion.CICLO_VIDA);
+            }
+        } catch (RuntimeException e) {
+            ejecucionService.fallar(id, e.getMessage());
+            throw e;
+        } finally {
+            enCurso.set(false);
+        }
+    }
+
+    private CompletableFuture<ResultadoChunk> despachar(Integer ejecucionId, Avance avance, List<Integer> chunk,
+                                                        LocalDateTime ahora, ExecutorService pool) {
+        int indice = avance.registrar(chunk.get(0), chunk.get(chunk.size() - 1));
+        int cantidad = chunk.size();
+        return CompletableFuture.supplyAsync(() -> procesarChunk(ejecucionId, avance, indice, cantidad, ahora), pool);
+    }
+
+    /**
+     * Procesa un rango [desde, hasta] de cultivos en una transacción corta y registra
+     * el avance en el ledger. Los errores se registran y no se propagan para no
+     * afectar a los demás chunks.
+     */
+    private ResultadoChunk procesarChunk(Integer ejecucionId, Avance avance, int indice, int cantidad,
+                                         LocalDateTime ahora) {
+        Integer[] rango = avance.rango(indice);
+        long inicio = System.nanoTime();
+        try {
+            ResultadoChunk resultado = transactionTemplate.execute(status -> procesarRango(rango[0], rango[1], cantidad, ahora));
+            long ms = Math.max(1, (System.nanoTime() - inicio) / 1_000_000);
+            log.info("Chunk [{}-{}]: {} cultivos, {} cambios de etapa, {} vencidas, {} tareas en {} ms ({} cultivos/s)",
+                rango[0], rango[1], resultado.cultivos(), resultado.cambios(), resultado.vencidas(),
+                resultado.tareas(), ms, resultado.cultivos() * 1000L / ms);
+
+            ejecucionService.registrarAvance(ejecucionId, FASE_CICLO_VIDA, avance.completar(indice),
+                resultado.cultivos(), resultado.vencidas(), resultado.tareas(), resultado.cambios());
+            metricas.cultivosEscaneados(TipoEjecucion.CICLO_VIDA, resultado.cultivos());
+            metricas.tareasVencidas(TipoEjecucion.CICLO_VIDA, resultado.vencidas());
+            metricas.tareasCreadas(TipoEjecucion.CICLO_VIDA, resultado.tareas());
+            return resultado;
+        } catch (RuntimeException e) {
+            log.error("Chunk [{}-{}] falló y se revirtió: {}", rango[0], rango[1], e.getMessage(), e);
+            return ResultadoChunk.FALLIDO;
+        }
+    }
+
+    private ResultadoChunk procesarRango(Integer desde, Integer hasta, int cantidad, LocalDateTime ahora) {
+        // === 1️⃣ VENCER TAREAS (set-based) ===
+        int vencidas = metricas.medirFase(TipoEjecucion.CICLO_VIDA, MetricasScheduler.FASE_VENCIMIENTO,
+            () -> vencerTareas(ahora, desde, hasta));
+
+        // === 2️⃣ AVANZAR ETAPAS ===
+        // Solo se cargan los cultivos con la etapa cumplida, detectados en SQL
+        int cambios = metricas.medirFase(TipoEjecucion.CICLO_VIDA, MetricasScheduler.FASE_ETAPAS, () -> {
+            List<Integer> ids = cultivoRepository.findIdsConEtapaCumplidaEntre(ahora, desde, hasta);
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            return cultivoService.avanzarEtapasCumplidas(
+                cultivoRepository.findConEspecieYUsuarioByIdIn(ids), ahora);
+        });
+
+        // === 3️⃣ GENERAR NUEVAS TAREAS ===
+        int tareas = metricas.medirFase(TipoEjecucion.CICLO_VIDA, MetricasScheduler.FASE_GENERACION, () -> {
+            // El índice se reconcilia con SQL nativo: las etapas nuevas deben estar escritas
+            cultivoRepository.flush();
+            proximaTareaService.sincronizar(ahora, desde, hasta);
+
+            // Pares (cultivo, regla) vencidos del rango, con cultivo, usuario y regla ya cargados
+            List<ProximaTarea> pendientes = proximaTareaRepository.findPendientesEntre(ahora, desde, hasta);
+            for (ProximaTarea pendiente : pendientes) {
+                proximaTareaService.generarTarea(pendiente);
+            }
+            return pendientes.size();
+        });
+
+        // Notificaciones: las de cambio de etapa quedan en el outbox (OutboxService) y las de
+        // tareas nuevas se agrupan por usuario en BufferNotificaciones
+        return new ResultadoChunk(cantidad, cambios, vencidas, tareas, 0);
+    }
+
+    /**
+     * Marca como vencidas las tareas pendientes del rango cuyo vencimiento ya pasó con
+     * una sentencia set-based. No escribe salud: el decaimiento de las tareas vencidas
+     * se calcula al leer y se materializa al ejecutar una tarea (SaludService).
+     */
+    private int vencerTareas(LocalDateTime ahora, Integer desde, Integer hasta) {
+        return tareaRepository.marcarVencidas(ahora, desde, hasta);
+    }
+
+    private record ResultadoChunk(int cultivos, int cambios, int vencidas, int tareas, int fallidos) {
+
+        static final ResultadoChunk VACIO = new ResultadoChunk(0, 0, 0, 0, 0);
+        static final ResultadoChunk FALLIDO = new ResultadoChunk(0, 0, 0, 0, 1);
+
+        ResultadoChunk sumar(ResultadoChunk otro) {
+            return new ResultadoChunk(cultivos + otro.cultivos, cambios + otro.cambios, vencidas + otro.vencidas,
+                tareas + otro.tareas, fallidos + otro.fallidos);
+        }
+    }
+
+    // Marca de agua del checkpoint: último id tal que todos los chunks previos terminaron bien.
+    // Los chunks se registran a medida que el cursor los va formando.
+    private static final class Avance {
+        private final List<Integer[]> rangos = new ArrayList<>();
+        private final List<Boolean> completados = new ArrayList<>();
+        private int siguiente;
+        private Integer marca = 0;
+
+        synchronized int registrar(Integer desde, Integer hasta) {
+            rangos.add(new Integer[] { desde, hasta });
+            completados.add(false);
+            return rangos.size() - 1;
+        }
+
+        synchronized Integer[] rango(int indice) {
+            return rangos.get(indice);
+        }
+
+        synchronized Integer completar(int indice) {
+            completados.set(indice, true);
+            while (siguiente < completados.size() && completados.get(siguiente)) {
+                marca = rangos.get(siguiente)[1];
+                siguiente++;
+            }
+            return marca;
+        }
+    }
+}
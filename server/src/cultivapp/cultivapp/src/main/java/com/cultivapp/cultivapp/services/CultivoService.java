@@ -7,22 +7,27 @@ import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.cultivapp.cultivapp.dto.CultivoDTO;
 import com.cultivapp.cultivapp.dto.CultivoDetailDTO;
 import com.cultivapp.cultivapp.dto.CultivoRequest;
+import com.cultivapp.cultivapp.dto.EtapaPorTerminarDTO;
 import com.cultivapp.cultivapp.models.Cultivo;
 import com.cultivapp.cultivapp.models.Especie;
 import com.cultivapp.cultivapp.models.Etapa;
-import com.cultivapp.cultivapp.models.Regla;
 import com.cultivapp.cultivapp.models.Tarea;
 import com.cultivapp.cultivapp.models.Usuario;
 import com.cultivapp.cultivapp.models.enums.Estado;
+import com.cultivapp.cultivapp.models.enums.TipoEventoOutbox;
 import com.cultivapp.cultivapp.repositories.CultivoRepository;
 import com.cultivapp.cultivapp.repositories.EspecieRepository;
 import com.cultivapp.cultivapp.repositories.EtapaRepository;
+import com.cultivapp.cultivapp.repositories.ReglaRepository;
 import com.cultivapp.cultivapp.repositories.UsuarioRepository;
 
 import lombok.RequiredArgsConstructor;
@@ -32,11 +37,20 @@ import lombok.RequiredArgsConstructor;
 @Transactional
 public class CultivoService {
 
+    private static final Logger log = LoggerFactory.getLogger(CultivoService.class);
+
+    public static final int MAX_DIAS_FIN_ETAPA = 90;
+
     private final EtapaRepository etapaRepository;
     private final CultivoRepository cultivoRepository;
     private final UsuarioRepository usuarioRepository;
     private final EspecieRepository especieRepository; 
-    private final NotificacionService notificacionService;
+    private final OutboxService outboxService;
+    private final ProximaTareaService proximaTareaService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReglaRepository reglaRepository;
+    private final ModeloEspecieCache modeloEspecieCache;
+    private final SaludService saludService;
 
 
    
@@ -169,6 +183,9 @@ public class CultivoService {
         }
     }
 
+    // Salud actual: la guardada menos el decaimiento de las tareas vencidas desde su evaluación
+    SaludService.Salud salud = saludService.actual(cultivo, LocalDateTime.now());
+
     // --- Armar DTO final ---
     return CultivoDetailDTO.builder()
             .id(cultivo.getId())
@@ -179,9 +196,9 @@ public class CultivoService {
             .areaHectareas(cultivo.getAreaHectareas())
             .etapaActual(cultivo.getEtapaActual())
             .estado(cultivo.getEstado())
-            .saludRiego(cultivo.getSaludRiego())
-            .saludMantenimiento(cultivo.getSaludMantenimiento())
-            .saludFertilizacion(cultivo.getSaludFertilizacion())
+            .saludRiego(salud.riego())
+            .saludMantenimiento(salud.mantenimiento())
+            .saludFertilizacion(salud.fertilizacion())
             .rendimientoKg(cultivo.getRendimientoKg())
             .fechaCreacion(cultivo.getFechaCreacion())
             .fechaActualizacion(cultivo.getFechaActualizacion())
@@ -202,6 +219,7 @@ public class CultivoService {
         .orElseThrow(() -> new RuntimeException("Especie no encontrada"));
 
     // Crear cultivo con etapa inicial
+    LocalDateTime ahora = LocalDateTime.now();
     Cultivo cultivo = Cultivo.builder()
         .nombre(request.getNombre())
         .areaHectareas(request.getAreaHectareas())
@@ -209,37 +227,41 @@ public class CultivoService {
         .usuario(usuario)
         .especie(especie)
         .etapaActual((short) 1) 
+        .fechaInicioEtapa(ahora)
         .build();
 
-    // Crear tareas iniciales
+    // Crear tareas iniciales a partir del modelo de la especie, sin cargar sus etapas
     List<Tarea> tareasIniciales = new ArrayList<>();
-
-    especie.getEtapas().stream()
-        .filter(etapa -> etapa.getOrden().equals(cultivo.getEtapaActual()))
-        .findFirst()
-        .ifPresent(etapa -> {
-            for (Regla regla : etapa.getReglas()) {
-                Tarea tarea = Tarea.builder()
-                    .cultivo(cultivo)
-                    .regla(regla)
-                    .fechaProgramada(LocalDateTime.now())
-                    .fechaVencimiento(LocalDateTime.now().plusDays(regla.getIntervaloDias()))
-                    .activa(true)
-                    .realizada(false)
-                    .vencida(false)
-                    .build();
-                tareasIniciales.add(tarea);
-            }
-        });
+    ModeloEspecie modelo = modeloEspecieCache.get(especie.getId());
+    int etapa = modelo != null ? modelo.indiceDe(cultivo.getEtapaActual()) : ModeloEspecie.SIN_VALOR;
+    actualizarFinEtapa(cultivo, modelo);
+
+    if (etapa != ModeloEspecie.SIN_VALOR) {
+        for (int i = 0; i < modelo.cantidadReglas(etapa); i++) {
+            int intervalo = modelo.intervaloDias(etapa, i);
+            Tarea tarea = Tarea.builder()
+                .cultivo(cultivo)
+                .regla(reglaRepository.getReferenceById(modelo.reglaId(etapa, i)))
+                .fechaProgramada(ahora)
+                .fechaVencimiento(intervalo != ModeloEspecie.SIN_VALOR ? ahora.plusDays(intervalo) : null)
+                .activa(true)
+                .realizada(false)
+                .vencida(false)
+                .build();
+            tareasIniciales.add(tarea);
+        }
+    }
 
     cultivo.setTareas(tareasIniciales);
 
     Cultivo saved = cultivoRepository.save(cultivo);
+    saved.getTareas().forEach(proximaTareaService::registrar);
+    eventPublisher.publishEvent(ProgramacionTareasCambiadaEvent.deCultivos("cultivo creado", List.of(saved.getId())));
+    eventPublisher.publishEvent(new SaludCambiadaEvent(List.of(saved.getId())));
 
-    notificacionService.createNotificacion(
-        "Nuevo cultivo creado: " + saved.getNombre(),
-        usuario.getId()
-    );
+    // La notificación la escribe el despachador del outbox, fuera de la petición
+    outboxService.registrar(TipoEventoOutbox.CULTIVO_CREADO, usuario.getId(), saved.getId(),
+        "Nuevo cultivo creado: " + saved.getNombre());
 
     return new CultivoDTO(
         saved.getId(),
@@ -253,7 +275,7 @@ public class CultivoService {
         saved.getEspecie() != null ? saved.getEspecie().getNombre() : null,
         saved.getEspecie() != null ? saved.getEspecie().getImagenUrl() : null,
         saved.getEspecie() != null ? saved.getEspecie().getDescripcion() : null,
-        saved.getEspecie() != null ? saved.getEspecie().getEtapas().size() : null,
+        modelo != null ? modelo.cantidadEtapas() : 0,
         saved.getUsuario() != null ? saved.getUsuario().getId() : null,
         saved.getUsuario() != null ? saved.getUsuario().getCiudad() : null
 
@@ -299,8 +321,10 @@ public class CultivoService {
         
         existing.setUsuario(usuario);
         existing.setEspecie(especie);
+        actualizarFinEtapa(existing, modeloEspecieCache.get(especie.getId()));
 
         Cultivo saved = cultivoRepository.save(existing);
+        eventPublisher.publishEvent(ProgramacionTareasCambiadaEvent.deCultivos("cultivo actualizado", List.of(saved.getId())));
         
         // Return DTO to avoid lazy-loading issues
         return new CultivoDTO(
@@ -333,6 +357,7 @@ public class CultivoService {
         }
         
         Cultivo saved = cultivoRepository.save(existing);
+        eventPublisher.publishEvent(ProgramacionTareasCambiadaEvent.deCultivos("estado de cultivo", List.of(saved.getId())));
         
         // Return DTO to avoid lazy-loading issues
         return new CultivoDTO(
@@ -361,57 +386,111 @@ public class CultivoService {
     }
 
 
- public void verificarCambiosDeEtapa() {
-        List<Cultivo> cultivos = cultivoRepository.findAll();
+    /**
+     * Avanza de etapa los cultivos cuya etapa actual ya se cumplió a la fecha de corte.
+     * CicloVidaScheduler solo pasa los que CultivoRepository.findIdsConEtapaCumplidaEntre
+     * detectó en SQL; la condición se vuelve a comprobar aquí contra el modelo.
+     * Las etapas de cada especie salen del modelo en memoria (ModeloEspecieCache), y cada
+     * cambio deja un evento en el outbox, que se inserta en batch con el flush del chunk.
+     *
+     * Si el job no corrió durante varios días un cultivo puede deber varias etapas: se
+     * avanzan todas de una vez, con la fecha de inicio exacta de la etapa alcanzada
+     * (inicio + duraciones acumuladas) en lugar de la fecha de la corrida, para que su
+     * calendario no se desplace.
+     *
+     * @return número de cultivos que avanzaron de etapa
+     */
+    public int avanzarEtapasCumplidas(List<Cultivo> cultivos, LocalDateTime ahora) {
+        List<Integer> avanzados = new ArrayList<>();
 
         for (Cultivo cultivo : cultivos) {
-            // Obtiene la etapa actual del cultivo
+            // Etapa actual del cultivo y fecha en que empezó
             Short numeroEtapa = cultivo.getEtapaActual();
-            if (numeroEtapa == null) continue;
-
-            // Busca la Etapa correspondiente a la especie y al orden actual
-            Etapa etapaActual = etapaRepository.findByEspecieIdAndOrden(
-                cultivo.getEspecie().getId(), numeroEtapa
-            );
-
-            if (etapaActual == null || etapaActual.getDuracionDias() == null) continue;
-
-            // Fecha de inicio y duración
             LocalDateTime inicio = cultivo.getFechaInicioEtapa();
-            if (inicio == null) continue;
-
-            LocalDateTime finEsperado = inicio.plusDays(etapaActual.getDuracionDias());
+            if (numeroEtapa == null || inicio == null) continue;
+
+            ModeloEspecie modelo = modeloEspecieCache.get(cultivo.getEspecie().getId());
+            if (modelo == null) continue;
+
+            int actual = modelo.indiceDe(numeroEtapa);
+            if (actual == ModeloEspecie.SIN_VALOR || modelo.duracionDias(actual) == ModeloEspecie.SIN_VALOR) continue;
+
+            // Recorre las etapas cumplidas sumando sus duraciones hasta la que está en curso a la fecha de corte
+            int destino = actual;
+            LocalDateTime inicioDestino = inicio;
+            while (modelo.duracionDias(destino) != ModeloEspecie.SIN_VALOR) {
+                LocalDateTime fin = inicioDestino.plusDays(modelo.duracionDias(destino));
+                int siguiente = modelo.siguiente(destino);
+                if (!ahora.isAfter(fin) || siguiente == ModeloEspecie.SIN_VALOR) break;
+                destino = siguiente;
+                inicioDestino = fin;
+            }
 
-            // Si ya pasó el tiempo de la etapa actual
-            if (LocalDateTime.now().isAfter(finEsperado)) {
-                avanzarEtapa(cultivo, etapaActual);
+            if (destino != actual) {
+                avanzarEtapa(cultivo, modelo, destino, destino - actual, inicioDestino);
+                avanzados.add(cultivo.getId());
             }
         }
+
+        if (!avanzados.isEmpty()) {
+            eventPublisher.publishEvent(ProgramacionTareasCambiadaEvent.deCultivos("cambio de etapa", avanzados));
+        }
+        return avanzados.size();
     }
 
-    private void avanzarEtapa(Cultivo cultivo, Etapa etapaActual) {
-        // Buscar la siguiente etapa de la misma especie
-        Etapa siguiente = etapaRepository.findNextEtapa(
-            cultivo.getEspecie().getId(),
-            etapaActual.getOrden()
-        );
+    // El cultivo está gestionado: un solo UPDATE sale con el flush del chunk, aunque avance varias etapas
+    private void avanzarEtapa(Cultivo cultivo, ModeloEspecie modelo, int destino, int saltos,
+                              LocalDateTime inicioEtapa) {
+        cultivo.setEtapaActual(modelo.orden(destino));
+        cultivo.setFechaInicioEtapa(inicioEtapa);
+        actualizarFinEtapa(cultivo, modelo);
 
-        if (siguiente != null) {
-            cultivo.setEtapaActual(siguiente.getOrden());
-            cultivo.setFechaInicioEtapa(LocalDateTime.now());
-            cultivoRepository.save(cultivo);
-            Usuario usuario = cultivo.getUsuario();
-            notificacionService.createNotificacion(
-                "cultivo "+cultivo.getNombre() +" cambio a etapa: " + siguiente.getNombre() ,
-                usuario.getId()
-            );
-  
-            System.out.println("🌿 Cultivo " + cultivo.getId() + 
-                " avanzó a etapa: " + siguiente.getNombre());
-        } else {
-            System.out.println("🌾 Cultivo " + cultivo.getId() + 
-                " ya está en la última etapa.");
+        String mensaje = saltos == 1
+            ? "cultivo " + cultivo.getNombre() + " cambio a etapa: " + modelo.nombre(destino)
+            : "cultivo " + cultivo.getNombre() + " avanzó " + saltos + " etapas, ahora en etapa: " + modelo.nombre(destino);
+        outboxService.registrar(TipoEventoOutbox.ETAPA_AVANZADA, cultivo.getUsuario().getId(), cultivo.getId(), mensaje);
+
+        log.debug("Cultivo {} avanzó a la etapa {} ({} etapas)", cultivo.getId(), modelo.nombre(destino), saltos);
+    }
+
+    /**
+     * Cultivos activos del usuario cuya etapa actual termina en los próximos 'dias' días,
+     * leídos directamente de fecha_fin_etapa.
+     */
+    @Transactional(readOnly = true)
+    public List<EtapaPorTerminarDTO> getEtapaPorTerminar(Integer usuarioId, int dias) {
+        if (dias < 1 || dias > MAX_DIAS_FIN_ETAPA) {
+            throw new IllegalArgumentException("El número de días debe estar entre 1 y " + MAX_DIAS_FIN_ETAPA);
         }
+        LocalDateTime ahora = LocalDateTime.now();
+        return cultivoRepository.findEtapaPorTerminarByUsuarioId(usuarioId, ahora, ahora.plusDays(dias)).stream()
+            .map(c -> {
+                ModeloEspecie modelo = modeloEspecieCache.get(c.getEspecie().getId());
+                int etapa = modelo != null && c.getEtapaActual() != null
+                    ? modelo.indiceDe(c.getEtapaActual()) : ModeloEspecie.SIN_VALOR;
+                return EtapaPorTerminarDTO.builder()
+                    .cultivoId(c.getId())
+                    .cultivoNombre(c.getNombre())
+                    .especieNombre(c.getEspecie().getNombre())
+                    .etapaActual(c.getEtapaActual())
+                    .etapa(etapa != ModeloEspecie.SIN_VALOR && modelo.nombre(etapa) != null ? modelo.nombre(etapa).name() : null)
+                    .fechaInicioEtapa(c.getFechaInicioEtapa())
+                    .fechaFinEtapa(c.getFechaFinEtapa())
+                    .build();
+            })
+            .toList();
+    }
+
+    // fecha_fin_etapa = inicio de la etapa actual + su duración; null si no se conoce o si es la
+    // última etapa (no hay a qué avanzar y el pipeline no debe volver a leerla)
+    private static void actualizarFinEtapa(Cultivo cultivo, ModeloEspecie modelo) {
+        int etapa = modelo != null && cultivo.getEtapaActual() != null
+            ? modelo.indiceDe(cultivo.getEtapaActual()) : ModeloEspecie.SIN_VALOR;
+        boolean conDuracion = etapa != ModeloEspecie.SIN_VALOR
+            && modelo.duracionDias(etapa) != ModeloEspecie.SIN_VALOR
+            && modelo.siguiente(etapa) != ModeloEspecie.SIN_VALOR
+            && cultivo.getFechaInicioEtapa() != null;
+        cultivo.setFechaFinEtapa(conDuracion ? cultivo.getFechaInicioEtapa().plusDays(modelo.duracionDias(etapa)) : null);
     }
 
     // ---- Custom Exceptions ----
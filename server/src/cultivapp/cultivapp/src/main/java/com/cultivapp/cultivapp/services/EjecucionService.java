@@ -0,0 +1,117 @@
+package com.cultivapp.cultivapp.services;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.cultivapp.cultivapp.models.EjecucionProgramada;
+import com.cultivapp.cultivapp.models.enums.EstadoEjecucion;
+import com.cultivapp.cultivapp.models.enums.TipoEjecucion;
+import com.cultivapp.cultivapp.repositories.EjecucionProgramadaRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Registro (ledger) de las corridas de los schedulers nocturnos. Cada método hace su
+ * propio commit para que el checkpoint sobreviva a un fallo del chunk siguiente.
+ */
+@Service
+@RequiredArgsConstructor
+public class EjecucionService {
+
+    private final EjecucionProgramadaRepository ejecucionRepository;
+
+    @Transactional
+    public EjecucionProgramada iniciar(TipoEjecucion tipo) {
+        return ejecucionRepository.save(EjecucionProgramada.builder()
+            .tipo(tipo)
+            .estado(EstadoEjecucion.EN_CURSO)
+            .build());
+    }
+
+    /**
+     * Registra un chunk terminado: suma sus contadores y avanza el checkpoint.
+     */
+    @Transactional
+    public void registrarAvance(Integer id, String fase, Integer checkpoint,
+                                int cultivos, int vencidas, int creadas, int cambios) {
+        ejecucionRepository.registrarAvance(id, fase, checkpoint,
+            cultivos, vencidas, creadas, cambios, LocalDateTime.now());
+    }
+
+    @Transactional
+    public void finalizar(Integer id) {
+        cerrar(id, EstadoEjecucion.COMPLETADA, null);
+    }
+
+    @Transactional
+    public void fallar(Integer id, String error) {
+        cerrar(id, EstadoEjecucion.FALLIDA, error);
+    }
+
+    /**
+     * Devuelve a en curso una corrida fallida o interrumpida para que se reanude
+     * desde su checkpoint.
+     */
+    @Transactional
+    public EjecucionProgramada reabrir(Integer id) {
+        EjecucionProgramada ejecucion = getById(id);
+        if (ejecucion.getEstado() == EstadoEjecucion.COMPLETADA) {
+            throw new EjecucionNoReanudableException("La ejecución " + id + " ya está completada");
+        }
+        ejecucion.setEstado(EstadoEjecucion.EN_CURSO);
+        ejecucion.setError(null);
+        ejecucion.setFechaFin(null);
+        ejecucion.setFechaActualizacion(LocalDateTime.now());
+        return ejecucionRepository.save(ejecucion);
+    }
+
+    @Transactional(readOnly = true)
+    public EjecucionProgramada getById(Integer id) {
+        return ejecucionRepository.findById(id)
+            .orElseThrow(() -> new EjecucionNotFoundException("Ejecución no encontrada con ID: " + id));
+    }
+
+    @Transactional(readOnly = true)
+    public List<EjecucionProgramada> listarRecientes() {
+        return ejecucionRepository.findTop20ByOrderByIdDesc();
+    }
+
+    // Runs left in progress by a JVM that stopped before finishing them
+    @Transactional(readOnly = true)
+    public List<EjecucionProgramada> listarInterrumpidas() {
+        return ejecucionRepository.findByEstadoOrderById(EstadoEjecucion.EN_CURSO);
+    }
+
+    private void cerrar(Integer id, EstadoEjecucion estado, String error) {
+        EjecucionProgramada ejecucion = getById(id);
+        LocalDateTime ahora = LocalDateTime.now();
+        ejecucion.setEstado(estado);
+        ejecucion.setError(error);
+        ejecucion.setFechaFin(ahora);
+        ejecucion.setFechaActualizacion(ahora);
+        ejecucionRepository.save(ejecucion);
+    }
+
+    // ---- Custom Exceptions ----
+
+    public static class EjecucionNotFoundException extends RuntimeException {
+        public EjecucionNotFoundException(String message) {
+            super(message);
+        }
+    }
+
+    public static class EjecucionEnCursoException extends RuntimeException {
+        public EjecucionEnCursoException(String message) {
+            super(message);
+        }
+    }
+
+    public static class EjecucionNoReanudableException extends RuntimeException {
+        public EjecucionNoReanudableException(String message) {
+            super(message);
+        }
+    }
+}
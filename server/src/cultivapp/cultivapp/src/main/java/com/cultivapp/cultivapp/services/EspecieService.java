@@ -5,6 +5,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,12 +28,15 @@ public class EspecieService {
     private final EspecieRepository especieRepository;
     private final CultivoRepository cultivoRepository;
     private final EtapaService etapaService;
+    private final ApplicationEventPublisher eventPublisher;
     
-    public EspecieService(EspecieRepository especieRepository, CultivoRepository cultivoRepository, EtapaService etapaService, NotificacionService notificacionService) {
+    public EspecieService(EspecieRepository especieRepository, CultivoRepository cultivoRepository, EtapaService etapaService,
+                          NotificacionService notificacionService, ApplicationEventPublisher eventPublisher) {
         this.especieRepository = especieRepository;
         this.cultivoRepository = cultivoRepository;
         this.etapaService = etapaService;
         this.notificacionService = notificacionService;
+        this.eventPublisher = eventPublisher;
     }
     
     /**
@@ -102,6 +106,7 @@ public class EspecieService {
             especie.setActivo(true);  // Reactivate species
             
             Especie saved = especieRepository.save(especie);
+            eventPublisher.publishEvent(new ModeloEspecieCambiadoEvent("especie reactivada"));
             return toDTO(saved);
         }
         
@@ -128,6 +133,7 @@ public class EspecieService {
                 etapaService.createEtapa(etapaRequest);
             }
         }
+        eventPublisher.publishEvent(new ModeloEspecieCambiadoEvent("especie creada"));
         
         return toDTO(saved);
     }
@@ -178,6 +184,7 @@ public class EspecieService {
                 etapaService.createEtapa(etapaRequest);
             }
         }
+        eventPublisher.publishEvent(new ModeloEspecieCambiadoEvent("especie actualizada"));
         
         return toDTO(updated);
     }
@@ -219,6 +226,7 @@ public class EspecieService {
         especie.setActivo(false);
         // Save the change to database - this persists the deletion
         especieRepository.save(especie);
+        eventPublisher.publishEvent(new ModeloEspecieCambiadoEvent("especie eliminada"));
         // Note: Record stays in database but getAllEspecies() filters it out
     }
     
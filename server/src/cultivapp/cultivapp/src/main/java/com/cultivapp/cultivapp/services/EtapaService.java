@@ -3,6 +3,7 @@ package com.cultivapp.cultivapp.services;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -11,6 +12,7 @@ import com.cultivapp.cultivapp.dto.EtapaRequest;
 import com.cultivapp.cultivapp.dto.ReglaRequest;
 import com.cultivapp.cultivapp.models.Etapa;
 import com.cultivapp.cultivapp.models.Regla;
+import com.cultivapp.cultivapp.repositories.CultivoRepository;
 import com.cultivapp.cultivapp.repositories.EspecieRepository;
 import com.cultivapp.cultivapp.repositories.EtapaRepository;
 import com.cultivapp.cultivapp.repositories.ReglaRepository;
@@ -25,6 +27,8 @@ public class EtapaService {
     private final EtapaRepository etapaRepository;
     private final EspecieRepository especieRepository;
     private final ReglaRepository reglaRepository;
+    private final CultivoRepository cultivoRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public EtapaDTO createEtapa(EtapaRequest request) {
@@ -48,7 +52,10 @@ public class EtapaService {
         }
         etapa.getReglas().addAll(reglas);
 
-        return convertToDTO(etapaRepository.save(etapa));
+        publicarCambio("etapa guardada");
+        var guardada = etapaRepository.save(etapa);
+        cultivoRepository.recalcularFinEtapaPorEspecie(especie.getId());
+        return convertToDTO(guardada);
     }
 
     @Transactional(readOnly = true)
@@ -81,6 +88,7 @@ public class EtapaService {
 
         var especie = especieRepository.findById(request.getEspecieId())
                 .orElseThrow(() -> new EntityNotFoundException("Especie no encontrada"));
+        Integer especieAnteriorId = etapa.getEspecie() != null ? etapa.getEspecie().getId() : null;
 
         etapa.setNombre(request.getNombre());
         etapa.setEspecie(especie);
@@ -99,15 +107,25 @@ public class EtapaService {
         }
         etapa.getReglas().addAll(reglas);
 
-        return convertToDTO(etapaRepository.save(etapa));
+        publicarCambio("etapa guardada");
+        var guardada = etapaRepository.save(etapa);
+        // La duración o el orden pueden haber cambiado: fecha_fin_etapa de los cultivos de la especie
+        cultivoRepository.recalcularFinEtapaPorEspecie(especie.getId());
+        if (especieAnteriorId != null && !especieAnteriorId.equals(especie.getId())) {
+            cultivoRepository.recalcularFinEtapaPorEspecie(especieAnteriorId);
+        }
+        return convertToDTO(guardada);
     }
 
     @Transactional
     public void deleteEtapa(Integer id) {
-        if (!etapaRepository.existsById(id)) {
-            throw new EntityNotFoundException("Etapa no encontrada");
+        var etapa = etapaRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Etapa no encontrada"));
+        etapaRepository.delete(etapa);
+        if (etapa.getEspecie() != null) {
+            cultivoRepository.recalcularFinEtapaPorEspecie(etapa.getEspecie().getId());
         }
-        etapaRepository.deleteById(id);
+        publicarCambio("etapa eliminada");
     }
 
     @Transactional
@@ -119,6 +137,7 @@ public class EtapaService {
                 .orElseThrow(() -> new EntityNotFoundException("Regla no encontrada"));
 
         etapa.getReglas().add(regla);
+        publicarCambio("regla agregada a etapa");
         return convertToDTO(etapaRepository.save(etapa));
     }
 
@@ -131,9 +150,16 @@ public class EtapaService {
                 .orElseThrow(() -> new EntityNotFoundException("Regla no encontrada"));
 
         etapa.getReglas().remove(regla);
+        publicarCambio("regla quitada de etapa");
         return convertToDTO(etapaRepository.save(etapa));
     }
 
+    // Las etapas mueven la programación de tareas y el modelo de ciclo de vida de su especie
+    private void publicarCambio(String motivo) {
+        eventPublisher.publishEvent(ProgramacionTareasCambiadaEvent.deCatalogo(motivo));
+        eventPublisher.publishEvent(new ModeloEspecieCambiadoEvent(motivo));
+    }
+
     private EtapaDTO convertToDTO(Etapa etapa) {
         var dto = new EtapaDTO();
         dto.setId(etapa.getId());
@@ -0,0 +1,218 @@
+package com.cultivapp.cultivapp.services;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cultivapp.cultivapp.dto.HistorialSaludDTO;
+import com.cultivapp.cultivapp.dto.HistorialSaludDTO.Punto;
+import com.cultivapp.cultivapp.models.SaludHistorial;
+import com.cultivapp.cultivapp.models.enums.AgrupacionSalud;
+import com.cultivapp.cultivapp.repositories.CultivoRepository;
+import com.cultivapp.cultivapp.repositories.SaludHistorialRepository;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Serie de salud de los cultivos, solo de inserción (salud_historial), y sus lecturas agregadas.
+ *
+ * Quien cambia la salud solo publica SaludCambiadaEvent; tras su commit los ids de los
+ * cultivos se encolan aquí y un volcado en segundo plano lee la salud actual de todos los
+ * encolados con una consulta y agrega las filas en lote, así la petición no escribe de más.
+ * Los cambios de un cultivo entre dos volcados se reducen a una sola fila.
+ *
+ * La salud se evalúa de forma perezosa (SaludService): las tareas vencidas la drenan sin
+ * escribir nada. La serie registra el valor evaluado, y una pasada diaria encola cada
+ * cultivo con tareas vencidas para que el decaimiento aparezca como un punto por día.
+ */
+@Service
+@RequiredArgsConstructor
+public class HistorialSaludService {
+
+    private static final Logger log = LoggerFactory.getLogger(HistorialSaludService.class);
+
+    public static final int MAX_DIAS = 366;
+    private static final int LOTE = 1_000;
+
+    private final CultivoRepository cultivoRepository;
+    private final SaludHistorialRepository historialRepository;
+    private final SaludService saludService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Set<Integer> pendientes = ConcurrentHashMap.newKeySet();
+
+    // Último valor escrito de cada cultivo en el día en curso, para codificar los deltas
+    private final Map<Integer, Ultimo> ultimos = new ConcurrentHashMap<>();
+
+    private record Ultimo(LocalDate dia, short riego, short fertilizacion, short mantenimiento) {}
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSaludCambiada(SaludCambiadaEvent event) {
+        pendientes.addAll(event.cultivoIds());
+    }
+
+    // Tras el ciclo nocturno: los cultivos que están decayendo tienen su punto del día aunque nada cambie
+    @Scheduled(cron = "${cultivapp.salud-historial.diario-cron:0 40 22 * * *}", zone = "America/Bogota")
+    public void encolarDecaimientoDiario() {
+        List<Integer> ids = cultivoRepository.findIdsConDecaimiento(LocalDateTime.now());
+        pendientes.addAll(ids);
+        log.debug("Historial de salud: {} cultivos con decaimiento encolados", ids.size());
+    }
+
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${cultivapp.salud-historial.intervalo-ms:5000}")
+    public synchronized void volcar() {
+        if (pendientes.isEmpty()) {
+            return;
+        }
+        List<Integer> ids = new ArrayList<>();
+        for (Integer id : pendientes) {
+            if (pendientes.remove(id)) {
+                ids.add(id);
+            }
+        }
+
+        LocalDateTime ahora = LocalDateTime.now();
+        LocalDate hoy = ahora.toLocalDate();
+        ultimos.values().removeIf(u -> !u.dia().equals(hoy));
+
+        int escritas = 0;
+        for (int i = 0; i < ids.size(); i += LOTE) {
+            List<Integer> lote = ids.subList(i, Math.min(ids.size(), i + LOTE));
+            try {
+                Map<Integer, Ultimo> escritos = transactionTemplate.execute(status -> escribirLote(lote, ahora));
+                if (escritos != null) {
+                    // Solo tras el commit: si la transacción falla, el siguiente volcado parte de lo ya guardado
+                    ultimos.putAll(escritos);
+                    escritas += escritos.size();
+                }
+            } catch (RuntimeException e) {
+                // Se reintentan en el siguiente volcado
+                pendientes.addAll(lote);
+                log.warn("No se pudo escribir el historial de salud de {} cultivos: {}", lote.size(), e.getMessage());
+            }
+        }
+        log.debug("Historial de salud: {} filas para {} cultivos", escritas, ids.size());
+    }
+
+    // Devuelve el último valor escrito de cada cultivo del lote; ultimos se actualiza tras el commit
+    private Map<Integer, Ultimo> escribirLote(List<Integer> lote, LocalDateTime ahora) {
+        LocalDate hoy = ahora.toLocalDate();
+        List<SaludHistorial> filas = new ArrayList<>();
+        Map<Integer, Ultimo> nuevos = new LinkedHashMap<>();
+
+        for (Map.Entry<Integer, SaludService.Salud> salud : saludService.actuales(lote, ahora).entrySet()) {
+            Ultimo actual = new Ultimo(hoy, decimas(salud.getValue().riego()),
+                decimas(salud.getValue().fertilizacion()), decimas(salud.getValue().mantenimiento()));
+            Ultimo previo = ultimos.get(salud.getKey());
+
+            SaludHistorial.SaludHistorialBuilder fila = SaludHistorial.builder()
+                .cultivo(cultivoRepository.getReferenceById(salud.getKey()))
+                .fecha(ahora);
+            if (previo == null) {
+                // Primera fila del día: valores absolutos
+                fila.base(true).riego(actual.riego()).fertilizacion(actual.fertilizacion())
+                    .mantenimiento(actual.mantenimiento());
+            } else if (previo.equals(actual)) {
+                continue;
+            } else {
+                fila.base(false)
+                    .riego((short) (actual.riego() - previo.riego()))
+                    .fertilizacion((short) (actual.fertilizacion() - previo.fertilizacion()))
+                    .mantenimiento((short) (actual.mantenimiento() - previo.mantenimiento()));
+            }
+            filas.add(fila.build());
+            nuevos.put(salud.getKey(), actual);
+        }
+
+        historialRepository.saveAll(filas);
+        return nuevos;
+    }
+
+    /**
+     * Salud de un cultivo al cierre de cada día o semana de [desde, hasta], reconstruida a
+     * partir de la última fila base anterior a 'desde' y los deltas posteriores. Los días
+     * sin cambios arrastran el valor anterior; se omiten las cubetas previas a la primera fila.
+     */
+    @Transactional(readOnly = true)
+    public HistorialSaludDTO historial(Integer cultivoId, LocalDate desde, LocalDate hasta, AgrupacionSalud agrupacion) {
+        if (desde.isAfter(hasta)) {
+            throw new IllegalArgumentException("La fecha inicial debe ser anterior a la final");
+        }
+        if (ChronoUnit.DAYS.between(desde, hasta) >= MAX_DIAS) {
+            throw new IllegalArgumentException("El rango no puede superar " + MAX_DIAS + " días");
+        }
+
+        LocalDateTime inicio = desde.atStartOfDay();
+        LocalDateTime fin = hasta.plusDays(1).atStartOfDay();
+        LocalDateTime lectura = historialRepository.findUltimaBaseAntesDe(cultivoId, inicio).orElse(inicio);
+
+        // Valor al cierre de cada cubeta con cambios
+        Map<LocalDate, int[]> cierres = new LinkedHashMap<>();
+        int[] valor = null;
+        int[] previoAlRango = null;
+        for (SaludHistorial fila : historialRepository.findSerie(cultivoId, lectura, fin)) {
+            if (fila.isBase()) {
+                valor = new int[] { fila.getRiego(), fila.getFertilizacion(), fila.getMantenimiento() };
+            } else if (valor != null) {
+                valor = new int[] { valor[0] + fila.getRiego(), valor[1] + fila.getFertilizacion(),
+                    valor[2] + fila.getMantenimiento() };
+            } else {
+                continue; // delta sin base previa (historial recortado)
+            }
+            if (fila.getFecha().isBefore(inicio)) {
+                previoAlRango = valor;
+            } else {
+                cierres.put(cubeta(fila.getFecha().toLocalDate(), agrupacion), valor);
+            }
+        }
+
+        List<Punto> puntos = new ArrayList<>();
+        int[] ultimo = previoAlRango;
+        for (LocalDate dia = cubeta(desde, agrupacion); !dia.isAfter(hasta);
+             dia = agrupacion == AgrupacionSalud.SEMANA ? dia.plusWeeks(1) : dia.plusDays(1)) {
+            ultimo = cierres.getOrDefault(dia, ultimo);
+            if (ultimo != null) {
+                puntos.add(Punto.builder()
+                    .fecha(dia)
+                    .riego(ultimo[0] / 10.0)
+                    .fertilizacion(ultimo[1] / 10.0)
+                    .mantenimiento(ultimo[2] / 10.0)
+                    .build());
+            }
+        }
+
+        return HistorialSaludDTO.builder()
+            .cultivoId(cultivoId)
+            .agrupacion(agrupacion)
+            .desde(desde)
+            .hasta(hasta)
+            .puntos(puntos)
+            .build();
+    }
+
+    private static LocalDate cubeta(LocalDate dia, AgrupacionSalud agrupacion) {
+        return agrupacion == AgrupacionSalud.SEMANA ? dia.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)) : dia;
+    }
+
+    private static short decimas(double valor) {
+        return (short) Math.round(valor * 10);
+    }
+}
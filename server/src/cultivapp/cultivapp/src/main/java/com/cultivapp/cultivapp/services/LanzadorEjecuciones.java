@@ -0,0 +1,69 @@
+package com.cultivapp.cultivapp.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.cultivapp.cultivapp.models.EjecucionProgramada;
+import com.cultivapp.cultivapp.models.enums.TipoEjecucion;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Lanza corridas de los schedulers fuera del cron: a pedido desde la API de
+ * administración y, al arrancar, reanuda las que una JVM anterior dejó en curso.
+ */
+@Service
+@RequiredArgsConstructor
+public class LanzadorEjecuciones {
+
+    private static final Logger log = LoggerFactory.getLogger(LanzadorEjecuciones.class);
+
+    private final EjecucionService ejecucionService;
+    private final CicloVidaScheduler cicloVidaScheduler;
+
+    public EjecucionProgramada lanzar(TipoEjecucion tipo) {
+        if (tipo != TipoEjecucion.CICLO_VIDA) {
+            throw new IllegalArgumentException("Solo se pueden lanzar ejecuciones de tipo " + TipoEjecucion.CICLO_VIDA);
+        }
+        verificarLibre(tipo);
+        EjecucionProgramada ejecucion = ejecucionService.iniciar(tipo);
+        enSegundoPlano(ejecucion);
+        return ejecucion;
+    }
+
+    public EjecucionProgramada reanudar(Integer id) {
+        verificarLibre(ejecucionService.getById(id).getTipo());
+        EjecucionProgramada ejecucion = ejecucionService.reabrir(id);
+        enSegundoPlano(ejecucion);
+        return ejecucion;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reanudarInterrumpidas() {
+        for (EjecucionProgramada ejecucion : ejecucionService.listarInterrumpidas()) {
+            log.info("Reanudando ejecución {} ({}) desde el cultivo {}",
+                ejecucion.getId(), ejecucion.getTipo(), ejecucion.getUltimoCultivoId());
+            enSegundoPlano(ejecucion);
+        }
+    }
+
+    // Las ejecuciones antiguas (TAREAS, ETAPAS) se reanudan con el mismo pipeline
+    private void verificarLibre(TipoEjecucion tipo) {
+        if (cicloVidaScheduler.isEnCurso()) {
+            throw new EjecucionService.EjecucionEnCursoException("Ya hay una ejecución de " + tipo + " en curso");
+        }
+    }
+
+    private void enSegundoPlano(EjecucionProgramada ejecucion) {
+        Thread.ofPlatform().name("ejecucion-" + ejecucion.getId()).start(() -> {
+            try {
+                cicloVidaScheduler.ejecutar(ejecucion);
+            } catch (RuntimeException e) {
+                log.error("Ejecución {} falló: {}", ejecucion.getId(), e.getMessage(), e);
+            }
+        });
+    }
+}
@@ -0,0 +1,93 @@
+package com.cultivapp.cultivapp.services;
+
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import com.cultivapp.cultivapp.models.enums.EstadoEjecucion;
+import com.cultivapp.cultivapp.models.enums.TipoEjecucion;
+import com.cultivapp.cultivapp.repositories.EjecucionProgramadaRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Instrumentación Micrometer de los schedulers nocturnos, expuesta en /actuator/prometheus.
+ *
+ * Cada medidor lleva el tipo de corrida (p. ej. "ciclo_vida"); los timers de fase llevan
+ * además la fase. El gauge del último éxito se inicializa desde el registro de corridas
+ * para que sobreviva a los reinicios.
+ */
+@Component
+public class MetricasScheduler {
+
+    public static final String FASE_VENCIMIENTO = "vencimiento";
+    public static final String FASE_GENERACION = "generacion";
+    public static final String FASE_ETAPAS = "etapas";
+
+    private final MeterRegistry registry;
+    private final Map<TipoEjecucion, AtomicLong> ultimaExitosa = new EnumMap<>(TipoEjecucion.class);
+
+    public MetricasScheduler(MeterRegistry registry, EjecucionProgramadaRepository ejecucionRepository) {
+        this.registry = registry;
+        for (TipoEjecucion tipo : TipoEjecucion.values()) {
+            AtomicLong epoch = new AtomicLong(ejecucionRepository
+                .findFirstByTipoAndEstadoOrderByFechaFinDesc(tipo, EstadoEjecucion.COMPLETADA)
+                .map(e -> e.getFechaFin().atZone(ZoneId.systemDefault()).toEpochSecond())
+                .orElse(0L));
+            ultimaExitosa.put(tipo, epoch);
+            Gauge.builder("cultivapp.scheduler.ultima.ejecucion.exitosa", epoch, AtomicLong::get)
+                .description("Epoch seconds of the last successful run (0 if none)")
+                .baseUnit("seconds")
+                .tag("scheduler", etiqueta(tipo))
+                .register(registry);
+        }
+    }
+
+    public <T> T medirFase(TipoEjecucion tipo, String fase, Supplier<T> accion) {
+        return Timer.builder("cultivapp.scheduler.fase")
+            .description("Duration of each scheduler phase")
+            .tag("scheduler", etiqueta(tipo))
+            .tag("fase", fase)
+            .register(registry)
+            .record(accion);
+    }
+
+    public void cultivosEscaneados(TipoEjecucion tipo, long cantidad) {
+        contador("cultivapp.scheduler.cultivos.escaneados", "Crops scanned", tipo).increment(cantidad);
+    }
+
+    public void tareasCreadas(TipoEjecucion tipo, long cantidad) {
+        contador("cultivapp.scheduler.tareas.creadas", "Tasks created", tipo).increment(cantidad);
+    }
+
+    public void tareasVencidas(TipoEjecucion tipo, long cantidad) {
+        contador("cultivapp.scheduler.tareas.vencidas", "Tasks marked as expired", tipo).increment(cantidad);
+    }
+
+    public void notificacionesEmitidas(TipoEjecucion tipo, long cantidad) {
+        contador("cultivapp.scheduler.notificaciones.emitidas", "Notifications emitted", tipo).increment(cantidad);
+    }
+
+    public void ejecucionExitosa(TipoEjecucion tipo) {
+        ultimaExitosa.get(tipo).set(System.currentTimeMillis() / 1000);
+    }
+
+    private Counter contador(String nombre, String descripcion, TipoEjecucion tipo) {
+        return Counter.builder(nombre)
+            .description(descripcion)
+            .tag("scheduler", etiqueta(tipo))
+            .register(registry);
+    }
+
+    private static String etiqueta(TipoEjecucion tipo) {
+        return tipo.name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,112 @@
+package com.cultivapp.cultivapp.services;
+
+import java.util.Comparator;
+import java.util.List;
+
+import com.cultivapp.cultivapp.models.Etapa;
+import com.cultivapp.cultivapp.models.Regla;
+import com.cultivapp.cultivapp.models.enums.TipoEtapa;
+
+/**
+ * Modelo inmutable del ciclo de vida de una especie: sus etapas ordenadas por 'orden'
+ * con su duración, y las reglas de cada etapa en arreglos primitivos.
+ *
+ * Las instancias se comparten entre hilos y nunca cambian; ModeloEspecieCache las
+ * reemplaza enteras cuando se escriben especies o etapas. Las etapas se direccionan
+ * por índice (0 = primera etapa), no por 'orden'.
+ */
+public final class ModeloEspecie {
+
+    // Etapa sin duracionDias o regla sin intervaloDias
+    public static final int SIN_VALOR = -1;
+
+    private final int especieId;
+    private final long version;
+    private final short[] ordenes;
+    private final TipoEtapa[] nombres;
+    private final int[] duraciones;
+    private final int[][] reglaIds;
+    private final int[][] intervalos;
+
+    ModeloEspecie(int especieId, long version, List<Etapa> etapas) {
+        List<Etapa> ordenadas = etapas.stream()
+            .filter(e -> e.getOrden() != null)
+            .sorted(Comparator.comparing(Etapa::getOrden))
+            .toList();
+        int n = ordenadas.size();
+
+        this.especieId = especieId;
+        this.version = version;
+        this.ordenes = new short[n];
+        this.nombres = new TipoEtapa[n];
+        this.duraciones = new int[n];
+        this.reglaIds = new int[n][];
+        this.intervalos = new int[n][];
+
+        for (int i = 0; i < n; i++) {
+            Etapa etapa = ordenadas.get(i);
+            ordenes[i] = etapa.getOrden();
+            nombres[i] = etapa.getNombre();
+            duraciones[i] = etapa.getDuracionDias() != null ? etapa.getDuracionDias() : SIN_VALOR;
+
+            List<Regla> reglas = etapa.getReglas();
+            reglaIds[i] = new int[reglas.size()];
+            intervalos[i] = new int[reglas.size()];
+            for (int j = 0; j < reglas.size(); j++) {
+                reglaIds[i][j] = reglas.get(j).getId();
+                intervalos[i][j] = reglas.get(j).getIntervaloDias() != null ? reglas.get(j).getIntervaloDias() : SIN_VALOR;
+            }
+        }
+    }
+
+    public int getEspecieId() {
+        return especieId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int cantidadEtapas() {
+        return ordenes.length;
+    }
+
+    // Índice de la etapa con ese orden, o SIN_VALOR si la especie no la tiene
+    public int indiceDe(short orden) {
+        for (int i = 0; i < ordenes.length; i++) {
+            if (ordenes[i] == orden) {
+                return i;
+            }
+        }
+        return SIN_VALOR;
+    }
+
+    // Índice de la etapa siguiente, o SIN_VALOR si es la última
+    public int siguiente(int indice) {
+        return indice + 1 < ordenes.length ? indice + 1 : SIN_VALOR;
+    }
+
+    public short orden(int indice) {
+        return ordenes[indice];
+    }
+
+    public TipoEtapa nombre(int indice) {
+        return nombres[indice];
+    }
+
+    public int duracionDias(int indice) {
+        return duraciones[indice];
+    }
+
+    public int cantidadReglas(int indice) {
+        return reglaIds[indice].length;
+    }
+
+    public int reglaId(int indice, int regla) {
+        return reglaIds[indice][regla];
+    }
+
+    public int intervaloDias(int indice, int regla) {
+        return intervalos[indice][regla];
+    }
+}
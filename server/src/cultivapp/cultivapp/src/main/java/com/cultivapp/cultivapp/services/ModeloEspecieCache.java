@@ -0,0 +1,79 @@
+package com.cultivapp.cultivapp.services;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.cultivapp.cultivapp.models.Etapa;
+import com.cultivapp.cultivapp.repositories.EtapaRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Modelos de ciclo de vida de todas las especies en memoria, compartidos por el pipeline
+ * nocturno y el alta de cultivos. El mapa entero se reconstruye con una consulta y se
+ * reemplaza de forma atómica, así los lectores siempre ven una versión consistente.
+ *
+ * Escribir especies, etapas o intervalos de reglas solo marca la caché como obsoleta
+ * (tras su commit); la siguiente lectura la reconstruye, lo que agrupa ráfagas de
+ * escrituras como reemplazar todas las etapas de una especie.
+ */
+@Component
+@RequiredArgsConstructor
+public class ModeloEspecieCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ModeloEspecieCache.class);
+
+    private final EtapaRepository etapaRepository;
+
+    private final AtomicReference<Map<Integer, ModeloEspecie>> modelos = new AtomicReference<>(Map.of());
+    private final AtomicLong version = new AtomicLong();
+    // Generación pedida (sube con cada invalidación) y generación del mapa publicado;
+    // -1 = aún no se ha cargado ningún mapa
+    private final AtomicLong generacion = new AtomicLong();
+    private volatile long cargada = -1;
+
+    /**
+     * @return el modelo de la especie, o null si no tiene etapas
+     */
+    public ModeloEspecie get(Integer especieId) {
+        if (cargada != generacion.get()) {
+            reconstruir();
+        }
+        return modelos.get().get(especieId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onModeloEspecieCambiado(ModeloEspecieCambiadoEvent event) {
+        generacion.incrementAndGet();
+    }
+
+    public synchronized void reconstruir() {
+        // La generación se lee antes de cargar: una invalidación durante la carga la deja
+        // por delante de la publicada y la siguiente lectura vuelve a reconstruir
+        long objetivo = generacion.get();
+        if (cargada == objetivo) {
+            return; // otro hilo lo reconstruyó mientras esperábamos
+        }
+        long nueva = version.incrementAndGet();
+        Map<Integer, List<Etapa>> etapasPorEspecie = etapaRepository.findAllConReglas().stream()
+            .collect(Collectors.groupingBy(e -> e.getEspecie().getId()));
+
+        Map<Integer, ModeloEspecie> nuevos = new HashMap<>();
+        etapasPorEspecie.forEach((especieId, etapas) ->
+            nuevos.put(especieId, new ModeloEspecie(especieId, nueva, etapas)));
+
+        // Primero se publica el mapa y después se marca como vigente: ningún lector ve el vacío inicial
+        modelos.set(Map.copyOf(nuevos));
+        cargada = objetivo;
+        log.info("Modelos de especie reconstruidos (versión {}): {} especies", nueva, nuevos.size());
+    }
+}
@@ -0,0 +1,7 @@
+package com.cultivapp.cultivapp.services;
+
+/**
+ * Se publica al escribir una especie, sus etapas o las reglas de sus etapas, para
+ * que se reconstruyan los modelos de ciclo de vida de ModeloEspecieCache.
+ */
+public record ModeloEspecieCambiadoEvent(String motivo) {}
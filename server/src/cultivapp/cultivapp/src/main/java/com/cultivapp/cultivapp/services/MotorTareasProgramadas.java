@@ -0,0 +1,226 @@
+package com.cultivapp.cultivapp.services;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.cultivapp.cultivapp.repositories.ProximaTareaRepository;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Motor de tareas por temporizador. Mantiene el próximo vencimiento de cada par
+ * (cultivo, regla) activo en un min-heap (DelayQueue) construido desde
+ * proximas_tareas y crea cada tarea cuando llega su instante, repartiendo las
+ * escrituras a lo largo del día. La corrida nocturna de CicloVidaScheduler queda
+ * como red de seguridad.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "cultivapp.motor-tareas.habilitado", havingValue = "true", matchIfMissing = true)
+public class MotorTareasProgramadas {
+
+    private static final Logger log = LoggerFactory.getLogger(MotorTareasProgramadas.class);
+
+    private static final long REINTENTO_MS = 60_000;
+    // Con más cultivos cambiados que esto sale más barato reconstruir todo el índice de una vez
+    private static final int MAX_CULTIVOS_INCREMENTAL = 500;
+
+    private final ProximaTareaService proximaTareaService;
+    private final ProximaTareaRepository proximaTareaRepository;
+
+    private final DelayQueue<Vencimiento> cola = new DelayQueue<>();
+    // Instante vigente de cada par: las entradas de la cola que no coinciden están obsoletas
+    private final Map<Par, Long> programados = new ConcurrentHashMap<>();
+    private final AtomicBoolean reconstruccionPendiente = new AtomicBoolean(false);
+    private final Set<Integer> cultivosPendientes = ConcurrentHashMap.newKeySet();
+    // Serializa las recargas desde la base con los encolados, para que una recarga no pise un par recién programado
+    private final Object cerrojo = new Object();
+    private volatile Thread worker;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        reconstruir();
+        worker = new Thread(this::procesar, "motor-tareas");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void detener() {
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    // Los cambios solo se anotan; la resincronización se agrupa en reconstruirSiHaceFalta
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProgramacionCambiada(ProgramacionTareasCambiadaEvent event) {
+        if (event.afectaATodos()) {
+            reconstruccionPendiente.set(true);
+        } else {
+            cultivosPendientes.addAll(event.cultivoIds());
+        }
+    }
+
+    // Ejecutar una tarea mueve la próxima ocurrencia de su par; se encola tras el commit de la ejecución
+    @TransactionalEventListener
+    public void onTareaEjecutada(TareaEjecutadaEvent event) {
+        programar(event.cultivoId(), event.reglaId(), event.siguiente());
+    }
+
+    @Scheduled(fixedDelayString = "${cultivapp.motor-tareas.reconstruccion-ms:60000}")
+    public void reconstruirSiHaceFalta() {
+        if (worker == null) {
+            return;
+        }
+        if (reconstruccionPendiente.getAndSet(false)) {
+            // La reconstrucción cubre también los cultivos anotados hasta ahora
+            cultivosPendientes.clear();
+            reconstruir();
+            return;
+        }
+        if (!cultivosPendientes.isEmpty()) {
+            List<Integer> cultivoIds = new ArrayList<>(cultivosPendientes);
+            cultivosPendientes.removeAll(cultivoIds);
+            if (cultivoIds.size() > MAX_CULTIVOS_INCREMENTAL) {
+                reconstruir();
+            } else {
+                resincronizar(cultivoIds);
+            }
+        }
+    }
+
+    /**
+     * Concilia el índice de próximas tareas con las etapas actuales y recarga
+     * todo el heap desde él.
+     */
+    public void reconstruir() {
+        proximaTareaService.sincronizar(LocalDateTime.now());
+
+        int cantidad;
+        synchronized (cerrojo) {
+            // Lectura y reemplazo bajo el cerrojo: un programar concurrente espera y se aplica encima
+            List<Vencimiento> vencimientos = aVencimientos(proximaTareaRepository.findVencimientos());
+            cola.clear();
+            programados.clear();
+            vencimientos.forEach(v -> programados.put(v.par(), v.instanteMs()));
+            cola.addAll(vencimientos);
+            cantidad = vencimientos.size();
+        }
+        log.info("Motor de tareas reconstruido con {} vencimientos", cantidad);
+    }
+
+    /**
+     * Resincroniza el índice solo para los cultivos indicados y reemplaza sus
+     * pares en la cola; el resto de la cola no se toca.
+     */
+    public void resincronizar(Collection<Integer> cultivoIds) {
+        proximaTareaService.sincronizarCultivos(LocalDateTime.now(), cultivoIds);
+
+        Set<Integer> afectados = new HashSet<>(cultivoIds);
+        int cantidad;
+        synchronized (cerrojo) {
+            List<Vencimiento> vencimientos = aVencimientos(proximaTareaRepository.findVencimientosByCultivoIds(afectados));
+            // Las entradas viejas de estos pares quedan en la cola como obsoletas y procesar las descarta
+            programados.keySet().removeIf(par -> afectados.contains(par.cultivoId()));
+            vencimientos.forEach(v -> encolar(v.par(), v.instanteMs()));
+            cantidad = vencimientos.size();
+        }
+        log.debug("Motor de tareas: {} cultivos resincronizados, {} vencimientos", afectados.size(), cantidad);
+    }
+
+    /**
+     * Programa (o reprograma) la próxima ocurrencia de un par, reemplazando el
+     * instante que tuviera encolado.
+     */
+    public void programar(Integer cultivoId, Integer reglaId, LocalDateTime instante) {
+        encolar(new Par(cultivoId, reglaId), aMillis(instante));
+    }
+
+    private void encolar(Par par, long instanteMs) {
+        synchronized (cerrojo) {
+            programados.put(par, instanteMs);
+            cola.offer(new Vencimiento(par, instanteMs));
+        }
+    }
+
+    private void procesar() {
+        while (!Thread.currentThread().isInterrupted()) {
+            Vencimiento vencimiento;
+            try {
+                vencimiento = cola.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            Par par = vencimiento.par();
+            if (!programados.remove(par, vencimiento.instanteMs())) {
+                continue; // reprogramado después de encolarse
+            }
+
+            try {
+                LocalDateTime siguiente = proximaTareaService.generarSiVence(
+                    par.cultivoId(), par.reglaId(), LocalDateTime.now());
+                // Si mientras tanto se reprogramó (p. ej. por una ejecución), se respeta ese instante
+                if (siguiente != null) {
+                    synchronized (cerrojo) {
+                        if (programados.putIfAbsent(par, aMillis(siguiente)) == null) {
+                            cola.offer(new Vencimiento(par, aMillis(siguiente)));
+                        }
+                    }
+                }
+            } catch (RuntimeException e) {
+                log.error("Error generando tarea para cultivo {} y regla {}: {}",
+                    par.cultivoId(), par.reglaId(), e.getMessage(), e);
+                encolar(par, System.currentTimeMillis() + REINTENTO_MS);
+            }
+        }
+    }
+
+    private static List<Vencimiento> aVencimientos(List<ProximaTareaRepository.Vencimiento> filas) {
+        return filas.stream()
+            .map(v -> new Vencimiento(new Par(v.getCultivoId(), v.getReglaId()), aMillis(v.getFechaProxima())))
+            .toList();
+    }
+
+    private static long aMillis(LocalDateTime instante) {
+        return instante.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private record Par(Integer cultivoId, Integer reglaId) {}
+
+    private record Vencimiento(Par par, long instanteMs) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(instanteMs - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed otro) {
+            return Long.compare(instanteMs, ((Vencimiento) otro).instanteMs);
+        }
+    }
+}
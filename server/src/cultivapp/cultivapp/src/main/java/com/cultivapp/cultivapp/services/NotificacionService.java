@@ -1,12 +1,25 @@
 package com.cultivapp.cultivapp.services;
 
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import com.cultivapp.cultivapp.dto.NotificacionDTO;
+import com.cultivapp.cultivapp.dto.PaginaNotificacionesDTO;
+import com.cultivapp.cultivapp.models.CursorNotificacion;
 import com.cultivapp.cultivapp.models.Notificacion;
+import com.cultivapp.cultivapp.models.NotificacionGlobal;
 import com.cultivapp.cultivapp.models.Usuario;
+import com.cultivapp.cultivapp.repositories.AvisoDescartadoRepository;
+import com.cultivapp.cultivapp.repositories.CursorNotificacionRepository;
+import com.cultivapp.cultivapp.repositories.NotificacionGlobalRepository;
 import com.cultivapp.cultivapp.repositories.NotificacionRepository;
 import com.cultivapp.cultivapp.repositories.UsuarioRepository;
 
@@ -17,46 +30,142 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class NotificacionService {
 
+    public static final int LIMITE_FEED = 20;
+    public static final int LIMITE_FEED_MAXIMO = 100;
+    public static final int MAX_IDS_EN_BLOQUE = 1_000;
+
+    // Usuarios sin fecha de registro ven todos los avisos globales
+    private static final LocalDateTime SIN_REGISTRO = LocalDateTime.of(2000, 1, 1, 0, 0);
+    // Primera página del feed: antes de cualquier notificación
+    private static final LocalDateTime SIN_CURSOR = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    // Orden del feed: más reciente primero; a igual fecha, id mayor primero
+    private static final Comparator<NotificacionDTO> ORDEN_FEED =
+        Comparator.comparing(NotificacionDTO::getFecha).thenComparing(NotificacionDTO::getId).reversed();
+
     private final NotificacionRepository notificacionRepository;
     private final UsuarioRepository usuarioRepository;
+    private final NotificacionGlobalRepository notificacionGlobalRepository;
+    private final CursorNotificacionRepository cursorRepository;
+    private final AvisoDescartadoRepository avisoDescartadoRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public Notificacion createNotificacion(String mensaje, Integer usuarioId) {
-        Usuario usuario = usuarioRepository.findById(usuarioId)
-                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+        if (!usuarioRepository.existsById(usuarioId)) {
+            throw new RuntimeException("Usuario no encontrado");
+        }
 
+        // Referencia por id: no se carga el usuario ni su colección de notificaciones
         Notificacion notificacion = new Notificacion();
         notificacion.setMensaje(mensaje);
-        notificacion.setUsuario(usuario);
+        notificacion.setUsuario(usuarioRepository.getReferenceById(usuarioId));
+
+        Notificacion guardada = notificacionRepository.save(notificacion);
+        publicar(List.of(guardada));
+        return guardada;
+    }
+
+    // Guarda en bloque notificaciones ya construidas (con su usuario); los INSERT salen en batch
+    @Transactional
+    public void createNotificaciones(List<Notificacion> notificaciones) {
+        if (!notificaciones.isEmpty()) {
+            publicar(notificacionRepository.saveAll(notificaciones));
+        }
+    }
 
-        usuario.getNotificaciones().add(notificacion);
-     
+    // Un aviso para todos es una sola fila: cada usuario lo ve al leer sus notificaciones
+    @Transactional
+    public void createNotificacionParaTodos(String mensaje) {
+        NotificacionGlobal aviso = notificacionGlobalRepository.save(NotificacionGlobal.builder().mensaje(mensaje).build());
+        eventPublisher.publishEvent(new NotificacionesCreadasEvent(List.of(
+            new NotificacionesCreadasEvent.Entrega(null, aDTO(aviso, false)))));
+    }
+
+    /**
+     * Notificaciones propias del usuario más los avisos globales enviados desde su registro
+     * que no ha borrado, ordenadas por fecha. El estado leído/borrado de los avisos sale de
+     * su cursor y de sus descartes (AvisoDescartado); los avisos llevan el id negado (ver
+     * NotificacionDTO).
+     */
+    @Transactional
+    public List<NotificacionDTO> getUserNotifications(Integer usuarioId) {
+        List<NotificacionDTO> resultado = new ArrayList<>();
+        for (Notificacion notificacion : notificacionRepository.findByUsuarioId(usuarioId)) {
+            resultado.add(aDTO(notificacion));
+        }
 
-        return notificacionRepository.save(notificacion);
+        usuarioRepository.findById(usuarioId).ifPresent(usuario -> {
+            CursorNotificacion cursor = cursorRepository.findById(usuarioId).orElseGet(CursorNotificacion::new);
+            LocalDateTime desde = usuario.getFechaRegistro() != null ? usuario.getFechaRegistro() : SIN_REGISTRO;
+            for (NotificacionGlobal aviso : notificacionGlobalRepository.findVisibles(usuarioId, desde, cursor.getBorradaHasta())) {
+                resultado.add(aDTO(aviso, aviso.getId() <= cursor.getLeidaHasta()));
+            }
+        });
+
+        resultado.sort(Comparator.comparing(NotificacionDTO::getFecha));
+        return resultado;
     }
 
+    /**
+     * Feed paginado por keyset: las 'limite' notificaciones (propias y avisos globales)
+     * anteriores al cursor 'antesDe' ("fecha,id" tal como lo devuelve la página previa;
+     * null para la primera). Cada página cuesta lo mismo por profunda que sea.
+     */
     @Transactional
-public void createNotificacionParaTodos(String mensaje) {
-    List<Usuario> usuarios = usuarioRepository.findAll();
+    public PaginaNotificacionesDTO getFeed(Integer usuarioId, String antesDe, int limite) {
+        if (limite < 1 || limite > LIMITE_FEED_MAXIMO) {
+            throw new IllegalArgumentException("El límite debe estar entre 1 y " + LIMITE_FEED_MAXIMO);
+        }
+        LocalDateTime fecha = SIN_CURSOR;
+        int id = Integer.MAX_VALUE;
+        if (antesDe != null && !antesDe.isBlank()) {
+            int coma = antesDe.lastIndexOf(',');
+            try {
+                fecha = LocalDateTime.parse(antesDe.substring(0, coma).trim());
+                id = Integer.parseInt(antesDe.substring(coma + 1).trim());
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Cursor inválido, se espera 'fecha,id': " + antesDe);
+            }
+        }
 
-    List<Notificacion> notificaciones = usuarios.stream()
-        .map(usuario -> {
-            Notificacion n = new Notificacion();
-            n.setMensaje(mensaje);
-            n.setUsuario(usuario);
-            n.setLeida(false);
-            return n;
-        })
-        .toList();
+        List<NotificacionDTO> pagina = new ArrayList<>();
+        for (Notificacion notificacion : notificacionRepository.findPaginaAntesDe(usuarioId, fecha, id, limite)) {
+            pagina.add(aDTO(notificacion));
+        }
+        Optional<Usuario> usuario = usuarioRepository.findById(usuarioId);
+        if (usuario.isPresent()) {
+            CursorNotificacion cursor = cursorRepository.findById(usuarioId).orElseGet(CursorNotificacion::new);
+            LocalDateTime desde = usuario.get().getFechaRegistro() != null ? usuario.get().getFechaRegistro() : SIN_REGISTRO;
+            for (NotificacionGlobal aviso : notificacionGlobalRepository.findPaginaAntesDe(
+                    usuarioId, desde, cursor.getBorradaHasta(), fecha, -id, PageRequest.of(0, limite))) {
+                pagina.add(aDTO(aviso, aviso.getId() <= cursor.getLeidaHasta()));
+            }
+        }
 
-    notificacionRepository.saveAll(notificaciones);
-}
+        // Mezcla de las dos páginas: las 'limite' primeras en orden de feed
+        pagina.sort(ORDEN_FEED);
+        List<NotificacionDTO> notificaciones = List.copyOf(pagina.subList(0, Math.min(limite, pagina.size())));
+        NotificacionDTO ultima = notificaciones.size() == limite ? notificaciones.get(limite - 1) : null;
+        return PaginaNotificacionesDTO.builder()
+            .notificaciones(notificaciones)
+            .siguiente(ultima != null ? ultima.getFecha() + "," + ultima.getId() : null)
+            .build();
+    }
 
-    public List<Notificacion> getUserNotifications(Integer usuarioId) {
-        return notificacionRepository.findByUsuarioId(usuarioId);
+    // Contador de no leídas (propias y avisos globales) con dos COUNT, sin cargar entidades
+    @Transactional
+    public long contarNoLeidas(Integer usuarioId) {
+        return notificacionRepository.countNoLeidas(usuarioId) + notificacionGlobalRepository.countNoLeidas(usuarioId);
     }
 
-    public void toggleLeido(Integer notificacionId) {
+    // Un id negativo es un aviso global: marcarlo leído avanza el cursor del usuario hasta él
+    @Transactional
+    public void toggleLeido(Integer notificacionId, String email) {
+        if (notificacionId < 0) {
+            cursorRepository.avanzarLeida(usuarioIdPorEmail(email), -notificacionId);
+            return;
+        }
         Notificacion notificacion = notificacionRepository.findById(notificacionId)
                 .orElseThrow(() -> new RuntimeException("Notificación no encontrada"));
 
@@ -64,24 +173,103 @@ public void createNotificacionParaTodos(String mensaje) {
         notificacionRepository.save(notificacion);
     }
 
-    public void deleteNotificacion(Integer notificacionId) {
+    // Borrar un aviso global solo lo descarta a él; el cursor de borrado no se mueve
+    @Transactional
+    public void deleteNotificacion(Integer notificacionId, String email) {
+        if (notificacionId < 0) {
+            avisoDescartadoRepository.descartar(usuarioIdPorEmail(email), -notificacionId);
+            return;
+        }
         notificacionRepository.deleteById(notificacionId);
     }
 
     @Transactional
     public void deleteAllByUsuario(Integer usuarioId) {
         notificacionRepository.deleteByUsuarioId(usuarioId);
+        borrarAvisosHasta(usuarioId, notificacionGlobalRepository.findUltimoId());
     }
 
-    
     @Transactional
     public void toogleAllLeidas(Integer usuarioId) {
-        List<Notificacion> notificaciones = notificacionRepository.findByUsuarioId(usuarioId);
+        notificacionRepository.marcarTodasLeidas(usuarioId);
+        cursorRepository.avanzarLeida(usuarioId, notificacionGlobalRepository.findUltimoId());
+    }
+
+    /**
+     * Marca como leídas las notificaciones indicadas del usuario con un solo UPDATE. Los
+     * ids negativos (avisos globales) avanzan su cursor de lectura hasta el mayor de ellos.
+     *
+     * @return notificaciones propias que pasaron a leídas
+     */
+    @Transactional
+    public int marcarLeidas(Integer usuarioId, List<Integer> ids) {
+        if (ids.size() > MAX_IDS_EN_BLOQUE) {
+            throw new IllegalArgumentException("Como máximo " + MAX_IDS_EN_BLOQUE + " ids por petición");
+        }
+        List<Integer> propias = ids.stream().filter(id -> id > 0).toList();
+        int avisoMayor = ids.stream().filter(id -> id < 0).mapToInt(id -> -id).max().orElse(0);
+
+        int marcadas = propias.isEmpty() ? 0 : notificacionRepository.marcarLeidas(usuarioId, propias);
+        if (avisoMayor > 0) {
+            cursorRepository.avanzarLeida(usuarioId, avisoMayor);
+        }
+        return marcadas;
+    }
+
+    /**
+     * Borra con un solo DELETE las notificaciones leídas del usuario anteriores a 'antesDe'.
+     * De los avisos globales se ocultan los leídos enviados antes de esa fecha: el cursor de
+     * borrado avanza hasta el menor entre su cursor de lectura y el último aviso anterior.
+     *
+     * @return notificaciones propias borradas
+     */
+    @Transactional
+    public int deleteLeidasAntesDe(Integer usuarioId, LocalDateTime antesDe) {
+        int borradas = notificacionRepository.deleteLeidasAntesDe(usuarioId, antesDe);
+        int leidaHasta = cursorRepository.findById(usuarioId).map(CursorNotificacion::getLeidaHasta).orElse(0);
+        int hasta = Math.min(leidaHasta, notificacionGlobalRepository.findUltimoIdAntesDe(antesDe));
+        if (hasta > 0) {
+            borrarAvisosHasta(usuarioId, hasta);
+        }
+        return borradas;
+    }
+
+    // Avanza el cursor de borrado; los descartes individuales que cubre ya no hacen falta
+    private void borrarAvisosHasta(Integer usuarioId, int hasta) {
+        cursorRepository.avanzarBorrada(usuarioId, hasta);
+        avisoDescartadoRepository.deleteCubiertos(usuarioId, hasta);
+    }
+
+    // Empuja las notificaciones nuevas a los clientes conectados tras el commit (CanalNotificaciones)
+    private void publicar(List<Notificacion> notificaciones) {
+        eventPublisher.publishEvent(new NotificacionesCreadasEvent(notificaciones.stream()
+            .map(n -> new NotificacionesCreadasEvent.Entrega(n.getUsuario().getId(), aDTO(n)))
+            .toList()));
+    }
+
+    private static NotificacionDTO aDTO(Notificacion notificacion) {
+        return NotificacionDTO.builder()
+            .id(notificacion.getId())
+            .mensaje(notificacion.getMensaje())
+            .fecha(notificacion.getFecha())
+            .leida(notificacion.isLeida())
+            .global(false)
+            .build();
+    }
 
-        notificaciones.stream()
-                .filter(n -> !n.isLeida()) // Solo las no leídas
-                .forEach(n -> n.setLeida(true));
+    private static NotificacionDTO aDTO(NotificacionGlobal aviso, boolean leida) {
+        return NotificacionDTO.builder()
+            .id(-aviso.getId())
+            .mensaje(aviso.getMensaje())
+            .fecha(aviso.getFecha())
+            .leida(leida)
+            .global(true)
+            .build();
+    }
 
-        notificacionRepository.saveAll(notificaciones);
+    public Integer usuarioIdPorEmail(String email) {
+        return usuarioRepository.findByEmail(email)
+                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"))
+                .getId();
     }
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.cultivapp.cultivapp.services;
+
+import java.util.List;
+
+import com.cultivapp.cultivapp.dto.NotificacionDTO;
+
+/**
+ * Notificaciones recién creadas; se envían a los clientes conectados cuando la
+ * transacción que las creó hace commit (CanalNotificaciones).
+ */
+public record NotificacionesCreadasEvent(List<Entrega> entregas) {
+
+    // usuarioId null: aviso global para todos los usuarios
+    public record Entrega(Integer usuarioId, NotificacionDTO notificacion) {}
+}
@@ -0,0 +1,196 @@
+package com.cultivapp.cultivapp.services;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cultivapp.cultivapp.models.EventoOutbox;
+import com.cultivapp.cultivapp.models.Notificacion;
+import com.cultivapp.cultivapp.models.enums.TipoEventoOutbox;
+import com.cultivapp.cultivapp.repositories.EventoOutboxRepository;
+import com.cultivapp.cultivapp.repositories.UsuarioRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Outbox transaccional para los efectos secundarios de los cambios de cultivos.
+ *
+ * Quien escribe agrega una fila en outbox_eventos en su propia transacción, así el evento
+ * existe si y solo si el cambio hizo commit, y la petición paga un insert en lote. Un
+ * despachador en segundo plano vacía la tabla por lotes: cada lote bloquea las filas más
+ * antiguas (SKIP LOCKED, así varias instancias pueden despachar a la vez), escribe sus
+ * notificaciones (que luego CanalNotificaciones envía por SSE) y las borra en una sola
+ * transacción.
+ *
+ * Un lote que falla se revierte y sus eventos se reintentan uno a uno, cada uno en su
+ * propia transacción, para que un evento malo no frene al resto. Cada fallo cuenta para
+ * ese evento; tras 'max-intentos' queda aparcado (fecha_aparcado) y el despachador deja
+ * de tomarlo.
+ */
+@Service
+public class OutboxService {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxService.class);
+
+    private final EventoOutboxRepository outboxRepository;
+    private final NotificacionService notificacionService;
+    private final UsuarioRepository usuarioRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry registry;
+    private final int lote;
+    private final int maxIntentos;
+    private final Counter aparcados;
+    private final Timer duracionLote;
+    private final Timer retraso;
+
+    public OutboxService(EventoOutboxRepository outboxRepository, NotificacionService notificacionService,
+                         UsuarioRepository usuarioRepository, TransactionTemplate transactionTemplate,
+                         MeterRegistry registry, @Value("${cultivapp.outbox.lote:500}") int lote,
+                         @Value("${cultivapp.outbox.max-intentos:5}") int maxIntentos) {
+        this.outboxRepository = outboxRepository;
+        this.notificacionService = notificacionService;
+        this.usuarioRepository = usuarioRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.registry = registry;
+        this.lote = Math.max(1, lote);
+        this.maxIntentos = Math.max(1, maxIntentos);
+        this.aparcados = Counter.builder("cultivapp.outbox.aparcados")
+            .description("Outbox events parked after failing max-intentos times")
+            .register(registry);
+        this.duracionLote = Timer.builder("cultivapp.outbox.lote")
+            .description("Duration of each outbox dispatch batch")
+            .register(registry);
+        this.retraso = Timer.builder("cultivapp.outbox.retraso")
+            .description("Time from writing an outbox event to dispatching it")
+            .register(registry);
+    }
+
+    // Debe llamarse dentro de la transacción del cambio que origina el evento
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrar(TipoEventoOutbox tipo, Integer usuarioId, Integer cultivoId, String mensaje) {
+        outboxRepository.save(EventoOutbox.builder()
+            .tipo(tipo)
+            .usuarioId(usuarioId)
+            .cultivoId(cultivoId)
+            .mensaje(mensaje)
+            .build());
+    }
+
+    /**
+     * Vacía el outbox hasta que un lote vuelve incompleto.
+     *
+     * @return eventos despachados
+     */
+    @Scheduled(fixedDelayString = "${cultivapp.outbox.intervalo-ms:1000}")
+    public int despachar() {
+        int total = 0;
+        while (true) {
+            long inicio = System.nanoTime();
+            List<EventoOutbox> despachados;
+            try {
+                despachados = transactionTemplate.execute(status -> despacharEventos(outboxRepository.findLoteParaDespachar(lote)));
+            } catch (RuntimeException e) {
+                log.warn("No se pudo despachar un lote del outbox, se reintenta evento por evento: {}", e.getMessage());
+                // Uno a uno: los eventos sanos salen y el que falla suma un intento
+                return total + despacharUnoAUno();
+            }
+            if (despachados == null || despachados.isEmpty()) {
+                return total;
+            }
+
+            // Métricas solo tras el commit: un lote revertido no cuenta
+            duracionLote.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            registrarDespachados(despachados);
+            total += despachados.size();
+            if (despachados.size() < lote) {
+                return total;
+            }
+        }
+    }
+
+    private int despacharUnoAUno() {
+        int total = 0;
+        for (Long id : outboxRepository.findIdsPendientes(lote)) {
+            try {
+                List<EventoOutbox> despachado = transactionTemplate.execute(status ->
+                    despacharEventos(outboxRepository.findParaDespachar(id).map(List::of).orElse(List.of())));
+                if (despachado != null) {
+                    registrarDespachados(despachado);
+                    total += despachado.size();
+                }
+            } catch (RuntimeException e) {
+                registrarFallo(id, e);
+            }
+        }
+        return total;
+    }
+
+    private void registrarFallo(Long id, RuntimeException causa) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> outboxRepository.findById(id).ifPresent(evento -> {
+                int intentos = (evento.getIntentos() != null ? evento.getIntentos() : 0) + 1;
+                evento.setIntentos(intentos);
+                evento.setUltimoError(String.valueOf(causa.getMessage()));
+                if (intentos >= maxIntentos) {
+                    evento.setFechaAparcado(LocalDateTime.now());
+                    aparcados.increment();
+                    log.error("Evento {} del outbox aparcado tras {} intentos: {}", id, intentos, causa.getMessage(), causa);
+                } else {
+                    log.warn("Evento {} del outbox falló (intento {} de {}): {}", id, intentos, maxIntentos, causa.getMessage());
+                }
+            }));
+        } catch (RuntimeException e) {
+            log.warn("No se pudo registrar el fallo del evento {} del outbox: {}", id, e.getMessage());
+        }
+    }
+
+    private void registrarDespachados(List<EventoOutbox> despachados) {
+        LocalDateTime ahora = LocalDateTime.now();
+        for (EventoOutbox evento : despachados) {
+            Counter.builder("cultivapp.outbox.despachados")
+                .description("Outbox events dispatched")
+                .tag("tipo", evento.getTipo().name().toLowerCase())
+                .register(registry)
+                .increment();
+            retraso.record(Duration.between(evento.getFecha(), ahora));
+        }
+    }
+
+    private List<EventoOutbox> despacharEventos(List<EventoOutbox> eventos) {
+        if (eventos.isEmpty()) {
+            return eventos;
+        }
+
+        // Usuarios borrados después del evento: no hay a quién notificar
+        Set<Integer> existentes = new HashSet<>(usuarioRepository.findIdsExistentes(
+            eventos.stream().map(EventoOutbox::getUsuarioId).distinct().toList()));
+        List<Notificacion> notificaciones = new ArrayList<>();
+        for (EventoOutbox evento : eventos) {
+            if (existentes.contains(evento.getUsuarioId())) {
+                notificaciones.add(Notificacion.builder()
+                    .mensaje(evento.getMensaje())
+                    .fecha(evento.getFecha())
+                    .usuario(usuarioRepository.getReferenceById(evento.getUsuarioId()))
+                    .build());
+            }
+        }
+        notificacionService.createNotificaciones(notificaciones);
+        outboxRepository.deleteByIdIn(eventos.stream().map(EventoOutbox::getId).toList());
+        return eventos;
+    }
+}
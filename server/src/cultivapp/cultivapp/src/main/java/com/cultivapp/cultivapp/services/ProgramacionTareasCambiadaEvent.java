@@ -0,0 +1,26 @@
+package com.cultivapp.cultivapp.services;
+
+import java.util.List;
+
+/**
+ * Se publica cuando un cambio puede mover los vencimientos de las tareas.
+ *
+ * Si el cambio es de unos cultivos concretos (alta, edición, estado o cambio de
+ * etapa) 'cultivoIds' los lista y el motor resincroniza solo esos pares. Si es
+ * del catálogo (una etapa o una regla editada) 'cultivoIds' es null y afecta a
+ * todos los cultivos.
+ */
+public record ProgramacionTareasCambiadaEvent(String motivo, List<Integer> cultivoIds) {
+
+    public static ProgramacionTareasCambiadaEvent deCultivos(String motivo, List<Integer> cultivoIds) {
+        return new ProgramacionTareasCambiadaEvent(motivo, List.copyOf(cultivoIds));
+    }
+
+    public static ProgramacionTareasCambiadaEvent deCatalogo(String motivo) {
+        return new ProgramacionTareasCambiadaEvent(motivo, null);
+    }
+
+    public boolean afectaATodos() {
+        return cultivoIds == null;
+    }
+}
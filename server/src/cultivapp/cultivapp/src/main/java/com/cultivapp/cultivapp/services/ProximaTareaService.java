@@ -0,0 +1,204 @@
+package com.cultivapp.cultivapp.services;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.cultivapp.cultivapp.models.Cultivo;
+import com.cultivapp.cultivapp.models.ProximaTarea;
+import com.cultivapp.cultivapp.models.Regla;
+import com.cultivapp.cultivapp.models.Tarea;
+import com.cultivapp.cultivapp.models.enums.Estado;
+import com.cultivapp.cultivapp.repositories.ProximaTareaRepository;
+import com.cultivapp.cultivapp.repositories.TareaRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Mantiene el índice de próximas tareas (proximas_tareas) que usa el generador.
+ * El índice es un dato derivado: siempre puede reconstruirse desde tareas y la
+ * etapa actual de cada cultivo.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProximaTareaService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProximaTareaService.class);
+
+    private final ProximaTareaRepository proximaTareaRepository;
+    private final TareaRepository tareaRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Alinea el índice con la etapa actual de cada cultivo activo: borra los pares
+     * de reglas que ya no aplican y siembra los que faltan.
+     */
+    @Transactional
+    public void sincronizar(LocalDateTime ahora) {
+        int creadas = sincronizar(ahora, 0, Integer.MAX_VALUE);
+        log.info("Índice de próximas tareas sincronizado: {} pares nuevos", creadas);
+    }
+
+    /**
+     * Igual que {@link #sincronizar(LocalDateTime)} restringido a los cultivos con id
+     * en [desde, hasta], así un chunk del pipeline solo concilia sus propios cultivos.
+     *
+     * @return número de pares sembrados
+     */
+    @Transactional
+    public int sincronizar(LocalDateTime ahora, Integer desde, Integer hasta) {
+        proximaTareaRepository.eliminarObsoletas(desde, hasta);
+        return proximaTareaRepository.sembrarFaltantes(ahora, desde, hasta);
+    }
+
+    /**
+     * Igual que {@link #sincronizar(LocalDateTime)} pero solo para los cultivos
+     * indicados, los que cambiaron de etapa, estado o datos.
+     */
+    @Transactional
+    public void sincronizarCultivos(LocalDateTime ahora, Collection<Integer> cultivoIds) {
+        for (Integer cultivoId : cultivoIds) {
+            sincronizar(ahora, cultivoId, cultivoId);
+        }
+    }
+
+    /**
+     * Crea la tarea de un par vencido y adelanta su próximo vencimiento. El dueño se
+     * notifica por BufferNotificaciones cuando la transacción hace commit. Debe
+     * ejecutarse dentro de una transacción con el par gestionado (cultivo, usuario y
+     * regla cargados).
+     */
+    public Tarea generarTarea(ProximaTarea pendiente) {
+        Cultivo cultivo = pendiente.getCultivo();
+        Tarea nueva = crearTarea(pendiente);
+        eventPublisher.publishEvent(new TareaGeneradaEvent(cultivo.getUsuario().getId(), cultivo.getId(),
+            cultivo.getNombre()));
+        return nueva;
+    }
+
+    private Tarea crearTarea(ProximaTarea pendiente) {
+        Cultivo cultivo = pendiente.getCultivo();
+        Regla regla = pendiente.getRegla();
+
+        log.debug("Generando tarea del cultivo {} para la regla {}", cultivo.getId(), regla.getId());
+
+        // Crear nueva tarea
+        Tarea nueva = new Tarea();
+        nueva.setCultivo(cultivo);
+        nueva.setRegla(regla);
+        nueva.setFechaProgramada(LocalDateTime.now());
+        nueva.setActiva(true);
+        nueva.setVencida(false);
+
+        tareaRepository.save(nueva);
+
+        // La entidad está gestionada: el UPDATE del índice sale en el commit
+        pendiente.setFechaProxima(calcularSiguiente(nueva));
+        return nueva;
+    }
+
+    /**
+     * Genera la tarea de un par si vence, bloqueando su fila del índice para que una
+     * corrida concurrente no la genere dos veces.
+     *
+     * @return el próximo vencimiento del par, o null si ya no aplica
+     */
+    @Transactional
+    public LocalDateTime generarSiVence(Integer cultivoId, Integer reglaId, LocalDateTime ahora) {
+        Optional<ProximaTarea> pendiente = proximaTareaRepository.findPendienteBloqueada(cultivoId, reglaId, ahora);
+        if (pendiente.isPresent()) {
+            generarTarea(pendiente.get());
+            return pendiente.get().getFechaProxima();
+        }
+
+        // Aún no vence (o ya lo generó otro proceso): se reprograma a su fecha actual
+        return proximaTareaRepository.findByCultivoIdAndReglaId(cultivoId, reglaId)
+            .filter(p -> p.getCultivo().getEstado() == Estado.ACTIVO)
+            .map(ProximaTarea::getFechaProxima)
+            .orElse(null);
+    }
+
+    /**
+     * Registra una tarea creada o ejecutada, adelantando el próximo vencimiento del
+     * par si la tarea lo lleva más tarde.
+     */
+    @Transactional
+    public void registrar(Tarea tarea) {
+        LocalDateTime siguiente = calcularSiguiente(tarea);
+
+        ProximaTarea proxima = proximaTareaRepository
+            .findByCultivoIdAndReglaId(tarea.getCultivo().getId(), tarea.getRegla().getId())
+            .orElseGet(() -> ProximaTarea.builder()
+                .cultivo(tarea.getCultivo())
+                .regla(tarea.getRegla())
+                .build());
+
+        if (proxima.getFechaProxima() == null || siguiente.isAfter(proxima.getFechaProxima())) {
+            proxima.setFechaProxima(siguiente);
+            proximaTareaRepository.save(proxima);
+        }
+    }
+
+    /**
+     * Programa la próxima ocurrencia de una tarea ejecutada un intervalo después de su
+     * ejecución y la publica para que el motor de tareas la encole tras el commit.
+     * Ejecutar una tarea más antigua del par, una sin intervalo o una de un cultivo
+     * inactivo no cambia nada.
+     *
+     * @return el nuevo próximo vencimiento del par, o null si no cambió
+     */
+    @Transactional
+    public LocalDateTime registrarEjecucion(Tarea tarea) {
+        Cultivo cultivo = tarea.getCultivo();
+        Regla regla = tarea.getRegla();
+        Integer intervalo = regla.getIntervaloDias();
+        if (intervalo == null || tarea.getFechaRealizacion() == null || cultivo.getEstado() != Estado.ACTIVO) {
+            return null;
+        }
+
+        LocalDateTime ultima = tareaRepository.findUltimaFecha(cultivo.getId(), regla.getId());
+        if (ultima != null && tarea.getFechaVencimiento() != null && tarea.getFechaVencimiento().isBefore(ultima)) {
+            return null;
+        }
+
+        LocalDateTime siguiente = tarea.getFechaRealizacion().plusDays(intervalo);
+        ProximaTarea proxima = proximaTareaRepository
+            .findByCultivoIdAndReglaId(cultivo.getId(), regla.getId())
+            .orElseGet(() -> ProximaTarea.builder()
+                .cultivo(cultivo)
+                .regla(regla)
+                .build());
+        proxima.setFechaProxima(siguiente);
+        proximaTareaRepository.save(proxima);
+
+        eventPublisher.publishEvent(new TareaEjecutadaEvent(cultivo.getId(), regla.getId(), siguiente));
+        return siguiente;
+    }
+
+    /**
+     * Borra los pares de una regla cuyo intervalo cambió; la siguiente sincronización
+     * los vuelve a sembrar desde la última tarea de la regla.
+     */
+    @Transactional
+    public void invalidarRegla(Integer reglaId) {
+        proximaTareaRepository.deleteByReglaId(reglaId);
+    }
+
+    /**
+     * Próximo instante de generación tras una tarea: un intervalo después de su
+     * vencimiento, la misma condición que usaba el generador con MAX(fechaVencimiento).
+     */
+    public static LocalDateTime calcularSiguiente(Tarea tarea) {
+        Integer intervalo = tarea.getRegla().getIntervaloDias();
+        LocalDateTime base = tarea.getFechaVencimiento() != null
+            ? tarea.getFechaVencimiento()
+            : tarea.getFechaProgramada();
+        return base.plusDays(intervalo != null ? intervalo : 0);
+    }
+}
@@ -1,13 +1,19 @@
 package com.cultivapp.cultivapp.services;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Component;
 
 import com.cultivapp.cultivapp.models.enums.TipoRegla;
+import com.cultivapp.cultivapp.services.strategies.DeltaSalud;
 import com.cultivapp.cultivapp.services.strategies.EstrategiaRegla;
 import com.cultivapp.cultivapp.services.strategies.FertilizacionStrategy;
 import com.cultivapp.cultivapp.services.strategies.MantenimientoStrategy;
+import com.cultivapp.cultivapp.services.strategies.ResultadoTarea;
 import com.cultivapp.cultivapp.services.strategies.RiegoStrategy;
 
 @Component
@@ -31,4 +37,15 @@ public class ReglaContext {
     public EstrategiaRegla getStrategy(TipoRegla tipo) {
         return strategies.get(tipo);
     }
+
+    // Deltas de salud por cultivo de muchos resultados de tareas: cada estrategia agrega los de su tipo
+    public Map<Integer, DeltaSalud> calcularDeltas(Collection<ResultadoTarea> resultados) {
+        Map<Integer, DeltaSalud> deltas = new HashMap<>();
+        Map<TipoRegla, List<ResultadoTarea>> porTipo = resultados.stream()
+            .filter(r -> r.tipo() != null && strategies.containsKey(r.tipo()))
+            .collect(Collectors.groupingBy(ResultadoTarea::tipo));
+        porTipo.forEach((tipo, delTipo) -> strategies.get(tipo).acumularDeltas(deltas, delTipo));
+        deltas.values().removeIf(DeltaSalud::isVacio);
+        return deltas;
+    }
 }
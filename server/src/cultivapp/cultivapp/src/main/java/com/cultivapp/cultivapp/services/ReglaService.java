@@ -4,6 +4,7 @@ package com.cultivapp.cultivapp.services;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
@@ -18,9 +19,14 @@ import jakarta.transaction.Transactional;
 public class ReglaService {
 
     private final ReglaRepository reglaRepository;
+    private final ProximaTareaService proximaTareaService;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public ReglaService(ReglaRepository reglaRepository) {
+    public ReglaService(ReglaRepository reglaRepository, ProximaTareaService proximaTareaService,
+                        ApplicationEventPublisher eventPublisher) {
         this.reglaRepository = reglaRepository;
+        this.proximaTareaService = proximaTareaService;
+        this.eventPublisher = eventPublisher;
     }
 
     /** Create a new Regla from the request. */
@@ -77,8 +83,12 @@ public class ReglaService {
             regla.setDescripcion(request.getDescripcion());
         if (request.getTipo() != null)
             regla.setTipo(request.getTipo());
-        if (request.getIntervaloDias() != null)
+        if (request.getIntervaloDias() != null && !request.getIntervaloDias().equals(regla.getIntervaloDias())) {
             regla.setIntervaloDias(request.getIntervaloDias());
+            proximaTareaService.invalidarRegla(id);
+            eventPublisher.publishEvent(ProgramacionTareasCambiadaEvent.deCatalogo("intervalo de regla"));
+            eventPublisher.publishEvent(new ModeloEspecieCambiadoEvent("intervalo de regla"));
+        }
         return reglaRepository.save(regla);
     }
 
@@ -88,6 +98,7 @@ public class ReglaService {
         if (!reglaRepository.existsById(id))
             throw new IllegalArgumentException("Regla no encontrada: " + id);
         reglaRepository.deleteById(id);
+        eventPublisher.publishEvent(new ModeloEspecieCambiadoEvent("regla eliminada"));
     }
 
 }
@@ -0,0 +1,93 @@
+package com.cultivapp.cultivapp.services;
+
+import java.time.LocalDateTime;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cultivapp.cultivapp.repositories.NotificacionRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Purga nocturna de notificaciones por retención: las leídas de más de N días y las
+ * no leídas de más de M días (0 desactiva cada una).
+ *
+ * Borra en lotes acotados, cada uno en su propia transacción corta y con una pausa
+ * entre lotes, para no retener bloqueos ni generar ráfagas de WAL. Cada lote recorre
+ * idx_notificaciones_leida_fecha desde las más antiguas.
+ */
+@Service
+public class RetencionNotificacionesScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(RetencionNotificacionesScheduler.class);
+
+    @Autowired
+    private NotificacionRepository notificacionRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Value("${cultivapp.notificaciones.retencion.leidas-dias:30}")
+    private int diasLeidas;
+
+    @Value("${cultivapp.notificaciones.retencion.no-leidas-dias:180}")
+    private int diasNoLeidas;
+
+    @Value("${cultivapp.notificaciones.retencion.lote:1000}")
+    private int lote;
+
+    @Value("${cultivapp.notificaciones.retencion.pausa-ms:200}")
+    private long pausaMs;
+
+    @Scheduled(cron = "${cultivapp.notificaciones.retencion.cron:0 30 3 * * *}", zone = "America/Bogota")
+    public void purgar() {
+        LocalDateTime ahora = LocalDateTime.now();
+        long inicio = System.nanoTime();
+        long leidas = purgar(true, diasLeidas, ahora);
+        long noLeidas = purgar(false, diasNoLeidas, ahora);
+        log.info("Retención de notificaciones: {} leídas y {} no leídas borradas en {} ms",
+            leidas, noLeidas, (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    // Lotes hasta que uno sale incompleto; lo que quede (filas bloqueadas) va en la siguiente purga
+    private long purgar(boolean leida, int dias, LocalDateTime ahora) {
+        if (dias <= 0) {
+            return 0;
+        }
+        LocalDateTime antesDe = ahora.minusDays(dias);
+        int tamano = Math.max(1, lote);
+        Counter purgadas = Counter.builder("cultivapp.notificaciones.purgadas")
+            .description("Notifications deleted by the retention job")
+            .tag("estado", leida ? "leida" : "no_leida")
+            .register(registry);
+
+        long total = 0;
+        while (true) {
+            Integer borradas = transactionTemplate.execute(status ->
+                notificacionRepository.purgarAntesDe(leida, antesDe, tamano));
+            int cantidad = borradas != null ? borradas : 0;
+            total += cantidad;
+            purgadas.increment(cantidad);
+            if (cantidad < tamano) {
+                return total;
+            }
+            try {
+                Thread.sleep(pausaMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("Retención de notificaciones interrumpida tras borrar {}", total);
+                return total;
+            }
+        }
+    }
+}
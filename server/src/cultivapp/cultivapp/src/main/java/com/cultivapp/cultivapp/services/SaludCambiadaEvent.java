@@ -0,0 +1,9 @@
+package com.cultivapp.cultivapp.services;
+
+import java.util.Collection;
+
+/**
+ * Se publica cuando cambia la salud de algunos cultivos, para que HistorialSaludService
+ * los agregue a la serie de salud cuando el cambio hace commit.
+ */
+public record SaludCambiadaEvent(Collection<Integer> cultivoIds) {}
@@ -0,0 +1,104 @@
+package com.cultivapp.cultivapp.services;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.cultivapp.cultivapp.models.Cultivo;
+import com.cultivapp.cultivapp.models.enums.TipoRegla;
+import com.cultivapp.cultivapp.repositories.CultivoRepository;
+import com.cultivapp.cultivapp.services.strategies.DeltaSalud;
+import com.cultivapp.cultivapp.services.strategies.EstrategiaRegla;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Salud de los cultivos evaluada de forma perezosa.
+ *
+ * La salud guardada es el valor en salud_evaluada_en. Cada tarea vencida y aún sin
+ * realizar drena su indicador al ritmo diario de su estrategia, así el valor actual es
+ * el guardado menos los días-tarea vencidos desde ese instante, acotado a 0..100. Se
+ * calcula al leer y solo se escribe (materializa) al ejecutar una tarea; la pasada
+ * nocturna solo marca las tareas vencidas y no escribe salud.
+ */
+@Service
+@RequiredArgsConstructor
+public class SaludService {
+
+    private final CultivoRepository cultivoRepository;
+    private final ReglaContext strategyFactory;
+
+    public record Salud(double riego, double fertilizacion, double mantenimiento) {
+
+        // Aplica una variación acotando cada indicador a 0..100
+        public Salud aplicar(DeltaSalud delta) {
+            return new Salud(acotar(riego + delta.getRiego()),
+                acotar(fertilizacion + delta.getFertilizacion()),
+                acotar(mantenimiento + delta.getMantenimiento()));
+        }
+
+        private static double acotar(double valor) {
+            return Math.max(0, Math.min(100, valor));
+        }
+    }
+
+    // Salud actual de un cultivo ya cargado
+    @Transactional(readOnly = true)
+    public Salud actual(Cultivo cultivo, LocalDateTime ahora) {
+        Salud guardada = new Salud(cultivo.getSaludRiego(), cultivo.getSaludFertilizacion(),
+            cultivo.getSaludMantenimiento());
+        return guardada.aplicar(decaimiento(List.of(cultivo.getId()), ahora)
+            .getOrDefault(cultivo.getId(), new DeltaSalud()));
+    }
+
+    // Salud actual de varios cultivos (guardada menos el decaimiento pendiente) sin cargar las entidades
+    @Transactional(readOnly = true)
+    public Map<Integer, Salud> actuales(Collection<Integer> cultivoIds, LocalDateTime ahora) {
+        Map<Integer, DeltaSalud> deltas = decaimiento(cultivoIds, ahora);
+        Map<Integer, Salud> saludes = new HashMap<>();
+        for (CultivoRepository.SaludActual fila : cultivoRepository.findSaludByIdIn(cultivoIds)) {
+            saludes.put(fila.getId(), new Salud(fila.getSaludRiego(), fila.getSaludFertilizacion(),
+                fila.getSaludMantenimiento()).aplicar(deltas.getOrDefault(fila.getId(), new DeltaSalud())));
+        }
+        return saludes;
+    }
+
+    /**
+     * Escribe la salud actual del cultivo más 'variacion' y mueve su instante de
+     * evaluación a 'ahora'. La fila del cultivo queda bloqueada hasta el fin de la
+     * transacción del llamador, así las ejecuciones concurrentes sobre el mismo cultivo
+     * se aplican una tras otra.
+     */
+    @Transactional
+    public Salud materializar(Integer cultivoId, DeltaSalud variacion, LocalDateTime ahora) {
+        CultivoRepository.SaludActual fila = cultivoRepository.bloquearSalud(cultivoId)
+            .orElseThrow(() -> new RuntimeException("Cultivo no encontrado"));
+
+        // Tras el bloqueo: el decaimiento parte de la última evaluación ya confirmada
+        Salud salud = new Salud(fila.getSaludRiego(), fila.getSaludFertilizacion(), fila.getSaludMantenimiento())
+            .aplicar(decaimiento(List.of(cultivoId), ahora).getOrDefault(cultivoId, new DeltaSalud()))
+            .aplicar(variacion);
+        cultivoRepository.guardarSalud(cultivoId, salud.riego(), salud.fertilizacion(), salud.mantenimiento(), ahora);
+        return salud;
+    }
+
+    // Decaimiento pendiente por cultivo: cada estrategia convierte los días vencidos de su tipo en puntos
+    private Map<Integer, DeltaSalud> decaimiento(Collection<Integer> cultivoIds, LocalDateTime ahora) {
+        Map<Integer, DeltaSalud> deltas = new HashMap<>();
+        for (CultivoRepository.DiasVencidos fila : cultivoRepository.findDiasVencidos(cultivoIds, ahora)) {
+            EstrategiaRegla estrategia = fila.getTipo() != null
+                ? strategyFactory.getStrategy(TipoRegla.valueOf(fila.getTipo()))
+                : null;
+            if (estrategia != null) {
+                estrategia.acumularDecaimiento(deltas.computeIfAbsent(fila.getCultivoId(), id -> new DeltaSalud()),
+                    fila.getDias());
+            }
+        }
+        return deltas;
+    }
+}
@@ -0,0 +1,9 @@
+package com.cultivapp.cultivapp.services;
+
+import java.time.LocalDateTime;
+
+/**
+ * Se publica cuando ejecutar una tarea mueve la próxima ocurrencia de su par
+ * (cultivo, regla) a 'siguiente'.
+ */
+public record TareaEjecutadaEvent(Integer cultivoId, Integer reglaId, LocalDateTime siguiente) {}
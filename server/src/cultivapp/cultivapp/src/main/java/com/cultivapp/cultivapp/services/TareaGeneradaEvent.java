@@ -0,0 +1,7 @@
+package com.cultivapp.cultivapp.services;
+
+/**
+ * Se publica cuando el generador crea una tarea, para que BufferNotificaciones la
+ * sume al resumen pendiente de su dueño cuando la tarea hace commit.
+ */
+public record TareaGeneradaEvent(Integer usuarioId, Integer cultivoId, String cultivo) {}
@@ -1,12 +1,16 @@
 package com.cultivapp.cultivapp.services;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.cultivapp.cultivapp.models.Tarea;
-import com.cultivapp.cultivapp.repositories.CultivoRepository;
 import com.cultivapp.cultivapp.repositories.TareaRepository;
-import com.cultivapp.cultivapp.services.strategies.EstrategiaRegla;
+import com.cultivapp.cultivapp.services.strategies.DeltaSalud;
+import com.cultivapp.cultivapp.services.strategies.ResultadoTarea;
 
 import lombok.RequiredArgsConstructor;
 
@@ -17,23 +21,45 @@ public class TareaService {
 
     private final ReglaContext strategyFactory;
     private final TareaRepository tareaRepository;
-    private final CultivoRepository cultivoRepository;
+    private final SaludService saludService;
+    private final ProximaTareaService proximaTareaService;
+    private final ApplicationEventPublisher eventPublisher;
 
+    /**
+     * Marca la tarea como realizada y materializa la salud del cultivo con su efecto.
+     *
+     * Es segura ante ejecuciones concurrentes: el cambio de estado es un UPDATE condicional
+     * (solo una ejecución de la misma tarea gana) y la salud se materializa con la fila del
+     * cultivo bloqueada, así dos tareas del mismo cultivo no se pisan. Ejecutar una tarea ya
+     * realizada no tiene efecto.
+     */
     @Transactional
     public void ejecutarTarea(Integer tareaId) {
-        Tarea tarea = tareaRepository.findById(tareaId)
-            .orElseThrow(() -> new RuntimeException("Tarea no encontrada"));
-
-        EstrategiaRegla strategy = strategyFactory.getStrategy(tarea.getRegla().getTipo());
+        LocalDateTime ahora = LocalDateTime.now();
 
-        if (strategy != null) {
-            strategy.ejecutarTarea(tarea);
+        if (tareaRepository.marcarRealizada(tareaId, ahora) == 0) {
+            if (!tareaRepository.existsById(tareaId)) {
+                throw new RuntimeException("Tarea no encontrada");
+            }
+            return;
         }
 
-        tarea.setRealizada(true);
-        tarea.setActiva(false);
+        // Se lee tras el UPDATE, ya con su nuevo estado; 'vencida' no cambia al realizarla
+        Tarea tarea = tareaRepository.findById(tareaId)
+            .orElseThrow(() -> new RuntimeException("Tarea no encontrada"));
+        Integer cultivoId = tarea.getCultivo().getId();
+
+        // A tiempo bonifica; realizada tarde, su penalización es el decaimiento acumulado hasta ahora
+        boolean tarde = tarea.isVencida()
+            || (tarea.getFechaVencimiento() != null && tarea.getFechaVencimiento().isBefore(ahora));
+        DeltaSalud variacion = tarde
+            ? new DeltaSalud()
+            : strategyFactory.calcularDeltas(List.of(new ResultadoTarea(cultivoId, tarea.getRegla().getTipo(), false, 1)))
+                .getOrDefault(cultivoId, new DeltaSalud());
+        saludService.materializar(cultivoId, variacion, ahora);
+        eventPublisher.publishEvent(new SaludCambiadaEvent(List.of(cultivoId)));
 
-        cultivoRepository.save(tarea.getCultivo());
-        tareaRepository.save(tarea);
+        // La siguiente ocurrencia se programa ya, a un intervalo de la ejecución
+        proximaTareaService.registrarEjecucion(tarea);
     }
-}
\ No newline at end of file
+}
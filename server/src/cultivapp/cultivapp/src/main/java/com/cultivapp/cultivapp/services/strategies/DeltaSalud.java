@@ -0,0 +1,31 @@
+package com.cultivapp.cultivapp.services.strategies;
+
+import lombok.Getter;
+
+/**
+ * Variación acumulada de salud de un cultivo (riego, fertilización y mantenimiento).
+ * Se usa para aplicar muchas penalizaciones/bonificaciones con un solo UPDATE.
+ */
+@Getter
+public class DeltaSalud {
+
+    private double riego;
+    private double fertilizacion;
+    private double mantenimiento;
+
+    public void sumarRiego(double puntos) {
+        riego += puntos;
+    }
+
+    public void sumarFertilizacion(double puntos) {
+        fertilizacion += puntos;
+    }
+
+    public void sumarMantenimiento(double puntos) {
+        mantenimiento += puntos;
+    }
+
+    public boolean isVacio() {
+        return riego == 0 && fertilizacion == 0 && mantenimiento == 0;
+    }
+}
@@ -1,9 +1,27 @@
 package com.cultivapp.cultivapp.services.strategies;
 
-
-import com.cultivapp.cultivapp.models.Tarea;
+import java.util.Collection;
+import java.util.Map;
 
 public interface EstrategiaRegla {
-    
-    public void ejecutarTarea(Tarea tarea);
+
+    // Acumula en el delta el efecto de 'cantidad' tareas de este tipo: las vencidas penalizan
+    // y las realizadas a tiempo bonifican
+    public void acumular(DeltaSalud delta, boolean vencida, long cantidad);
+
+    // Acumula en el delta el decaimiento de las tareas de este tipo vencidas sin realizar:
+    // 'dias' es la suma de los días que lleva vencida cada una
+    public void acumularDecaimiento(DeltaSalud delta, double dias);
+
+    /**
+     * Agrega los resultados de muchas tareas de este tipo en un delta por cultivo (sumándolos
+     * a los que ya haya en 'deltas'), para aplicarlos después con un UPDATE acotado por cultivo
+     * sin cargar las entidades.
+     */
+    public default void acumularDeltas(Map<Integer, DeltaSalud> deltas, Collection<ResultadoTarea> resultados) {
+        for (ResultadoTarea resultado : resultados) {
+            acumular(deltas.computeIfAbsent(resultado.cultivoId(), id -> new DeltaSalud()),
+                resultado.vencida(), resultado.cantidad());
+        }
+    }
 }
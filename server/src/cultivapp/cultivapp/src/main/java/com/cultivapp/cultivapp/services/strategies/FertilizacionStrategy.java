@@ -2,20 +2,20 @@ package com.cultivapp.cultivapp.services.strategies;
 
 import org.springframework.stereotype.Component;
 
-import com.cultivapp.cultivapp.models.Cultivo;
-import com.cultivapp.cultivapp.models.Tarea;
-
 @Component
 public class FertilizacionStrategy implements EstrategiaRegla {
 
-	@Override
-    public void ejecutarTarea(Tarea tarea) {
-        Cultivo cultivo = tarea.getCultivo();
+    static final double PENALIZACION = 8;
+    static final double BONIFICACION = 4;
+    static final double DECAIMIENTO_DIARIO = PENALIZACION; // por cada día que sigue vencida
+
+    @Override
+    public void acumular(DeltaSalud delta, boolean vencida, long cantidad) {
+        delta.sumarFertilizacion((vencida ? -PENALIZACION : BONIFICACION) * cantidad);
+    }
 
-        if (tarea.isVencida()) {
-            cultivo.setSaludFertilizacion(Math.max(0, cultivo.getSaludFertilizacion() - 8));
-        } else if (tarea.isActiva()) {
-            cultivo.setSaludFertilizacion(Math.min(100, cultivo.getSaludFertilizacion() + 4));
-        }
+    @Override
+    public void acumularDecaimiento(DeltaSalud delta, double dias) {
+        delta.sumarFertilizacion(-DECAIMIENTO_DIARIO * dias);
     }
 }
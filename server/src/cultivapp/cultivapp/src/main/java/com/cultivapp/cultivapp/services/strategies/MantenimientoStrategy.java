@@ -2,21 +2,20 @@ package com.cultivapp.cultivapp.services.strategies;
 
 import org.springframework.stereotype.Component;
 
-import com.cultivapp.cultivapp.models.Cultivo;
-import com.cultivapp.cultivapp.models.Tarea;
-
 @Component
 public class MantenimientoStrategy implements EstrategiaRegla{
 
-	@Override
-    public void ejecutarTarea(Tarea tarea) {
-        Cultivo cultivo = tarea.getCultivo();
+    static final double PENALIZACION = 6;
+    static final double BONIFICACION = 3;
+    static final double DECAIMIENTO_DIARIO = PENALIZACION; // por cada día que sigue vencida
+
+    @Override
+    public void acumular(DeltaSalud delta, boolean vencida, long cantidad) {
+        delta.sumarMantenimiento((vencida ? -PENALIZACION : BONIFICACION) * cantidad);
+    }
 
-        if (tarea.isVencida()) {
-            cultivo.setSaludMantenimiento(Math.max(0, cultivo.getSaludMantenimiento() - 6));
-        } else if (tarea.isActiva()) {
-            cultivo.setSaludMantenimiento(Math.min(100, cultivo.getSaludMantenimiento() + 3));
-        }
+    @Override
+    public void acumularDecaimiento(DeltaSalud delta, double dias) {
+        delta.sumarMantenimiento(-DECAIMIENTO_DIARIO * dias);
     }
 }
- 
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.cultivapp.cultivapp.services.strategies;
+
+import com.cultivapp.cultivapp.models.enums.TipoRegla;
+
+/**
+ * Resultado de una o varias tareas del mismo cultivo y tipo de regla: la entrada del
+ * contrato por lotes de EstrategiaRegla. 'cantidad' permite pasar conteos ya agregados
+ * en SQL (p. ej. las tareas vencidas de un cultivo).
+ */
+public record ResultadoTarea(Integer cultivoId, TipoRegla tipo, boolean vencida, long cantidad) {}
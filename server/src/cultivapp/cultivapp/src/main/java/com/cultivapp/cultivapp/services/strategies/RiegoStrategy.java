@@ -2,19 +2,20 @@ package com.cultivapp.cultivapp.services.strategies;
 
 import org.springframework.stereotype.Component;
 
-import com.cultivapp.cultivapp.models.Cultivo;
-import com.cultivapp.cultivapp.models.Tarea;
-
 @Component
 public class RiegoStrategy implements EstrategiaRegla {
-	@Override
-    public void ejecutarTarea(Tarea tarea) {
-        Cultivo cultivo = tarea.getCultivo();
 
-        if (tarea.isVencida()) {
-            cultivo.setSaludRiego(Math.max(0, cultivo.getSaludRiego() - 10)); // baja 10 puntos
-        } else if (tarea.isActiva()) {
-            cultivo.setSaludRiego(Math.min(100, cultivo.getSaludRiego() + 5)); // sube 5 puntos
-        }
+    static final double PENALIZACION = 10; // baja 10 puntos
+    static final double BONIFICACION = 5;  // sube 5 puntos
+    static final double DECAIMIENTO_DIARIO = PENALIZACION; // por cada día que sigue vencida
+
+    @Override
+    public void acumular(DeltaSalud delta, boolean vencida, long cantidad) {
+        delta.sumarRiego((vencida ? -PENALIZACION : BONIFICACION) * cantidad);
+    }
+
+    @Override
+    public void acumularDecaimiento(DeltaSalud delta, double dias) {
+        delta.sumarRiego(-DECAIMIENTO_DIARIO * dias);
     }
 }
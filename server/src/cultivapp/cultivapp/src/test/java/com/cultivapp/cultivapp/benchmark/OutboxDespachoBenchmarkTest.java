@@ -0,0 +1,149 @@
+package com.cultivapp.cultivapp.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cultivapp.cultivapp.dto.CultivoRequest;
+import com.cultivapp.cultivapp.models.Usuario;
+import com.cultivapp.cultivapp.models.enums.TipoEventoOutbox;
+import com.cultivapp.cultivapp.repositories.EspecieRepository;
+import com.cultivapp.cultivapp.repositories.EventoOutboxRepository;
+import com.cultivapp.cultivapp.repositories.UsuarioRepository;
+import com.cultivapp.cultivapp.services.CultivoService;
+import com.cultivapp.cultivapp.services.NotificacionService;
+import com.cultivapp.cultivapp.services.OutboxService;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Benchmark: notificaciones de cultivos a través del outbox.
+ *
+ * Qué mide: ms por creación de cultivo escribiendo el evento en el outbox, el coste de
+ * la notificación síncrona que la petición ya no paga, y eventos/segundo del
+ * despachador al drenar 20k eventos
+ * Cómo ejecutarlo: mvn test -Dtest=OutboxDespachoBenchmarkTest -Dcultivapp.benchmark=true
+ * Requiere la BD de desarrollo con los datos iniciales (usuarios y especies)
+ */
+@SpringBootTest(properties = {
+    "cultivapp.motor-tareas.habilitado=false",
+    // Sin sondeo durante la medición: el despacho lo lanza el test
+    "cultivapp.outbox.intervalo-ms=3600000"
+})
+@EnabledIfSystemProperty(named = "cultivapp.benchmark", matches = "true")
+@DisplayName("Benchmark: outbox de notificaciones")
+class OutboxDespachoBenchmarkTest {
+
+    private static final int CULTIVOS = 200;
+    private static final int EVENTOS = 20_000;
+    private static final String PREFIJO = "Benchmark outbox ";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private EspecieRepository especieRepository;
+
+    @Autowired
+    private EventoOutboxRepository outboxRepository;
+
+    @Autowired
+    private CultivoService cultivoService;
+
+    @Autowired
+    private NotificacionService notificacionService;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    private final List<Integer> cultivoIds = new ArrayList<>();
+
+    @AfterEach
+    void limpiar() {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!cultivoIds.isEmpty()) {
+                for (String entidad : List.of("ProximaTarea", "Tarea", "SaludHistorial")) {
+                    entityManager.createQuery("DELETE FROM " + entidad + " e WHERE e.cultivo.id IN :ids")
+                        .setParameter("ids", cultivoIds)
+                        .executeUpdate();
+                }
+                entityManager.createQuery("DELETE FROM Cultivo c WHERE c.id IN :ids")
+                    .setParameter("ids", cultivoIds)
+                    .executeUpdate();
+            }
+            entityManager.createQuery("DELETE FROM Notificacion n WHERE n.mensaje LIKE :patron")
+                .setParameter("patron", "%" + PREFIJO + "%")
+                .executeUpdate();
+        });
+    }
+
+    @Test
+    @DisplayName("Creación de cultivos con outbox y despacho de 20k eventos")
+    void medirOutbox() {
+        Usuario usuario = usuarioRepository.findByEmail("productor@cultivapp.com").orElseThrow();
+        Integer especieId = especieRepository.findAll().get(0).getId();
+        outboxService.despachar();
+
+        // 1. Latencia de la creación: el evento es una fila más en la misma transacción
+        long inicio = System.nanoTime();
+        for (int i = 0; i < CULTIVOS; i++) {
+            CultivoRequest request = new CultivoRequest();
+            request.setNombre(PREFIJO + i);
+            request.setAreaHectareas(BigDecimal.ONE);
+            request.setUsuarioId(usuario.getId());
+            request.setEspecieId(especieId);
+            cultivoIds.add(cultivoService.createCultivo(request).getId());
+        }
+        double msPorCultivo = (System.nanoTime() - inicio) / 1_000_000.0 / CULTIVOS;
+
+        // Lo que cada creación pagaba antes: la notificación síncrona en su transacción
+        inicio = System.nanoTime();
+        for (int i = 0; i < CULTIVOS; i++) {
+            int n = i;
+            transactionTemplate.executeWithoutResult(status ->
+                notificacionService.createNotificacion(PREFIJO + "síncrona " + n, usuario.getId()));
+        }
+        double msSincrona = (System.nanoTime() - inicio) / 1_000_000.0 / CULTIVOS;
+
+        // 2. Rendimiento del despachador
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < EVENTOS; i++) {
+                outboxService.registrar(TipoEventoOutbox.CULTIVO_CREADO, usuario.getId(), null, PREFIJO + "evento " + i);
+            }
+        });
+        inicio = System.nanoTime();
+        int despachados = outboxService.despachar();
+        double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+
+        System.out.printf("✓ Creación de cultivo con outbox: %.2f ms/cultivo%n", msPorCultivo);
+        System.out.printf("✓ Notificación síncrona evitada en la petición: %.2f ms/cultivo%n", msSincrona);
+        System.out.printf("✓ Despachador: %d eventos en %.2f s (%.0f eventos/s)%n",
+            despachados, segundos, despachados / segundos);
+
+        assertEquals(CULTIVOS + EVENTOS, despachados, "Se deben despachar los eventos de creación y los del lote");
+        assertEquals(0, outboxRepository.count(), "El outbox debe quedar vacío");
+        Long notificaciones = entityManager.createQuery(
+                "SELECT COUNT(n) FROM Notificacion n WHERE n.mensaje LIKE :patron", Long.class)
+            .setParameter("patron", "%" + PREFIJO + "%")
+            .getSingleResult();
+        assertEquals((long) CULTIVOS * 2 + EVENTOS, notificaciones,
+            "Cada evento debe producir una notificación, más las síncronas");
+    }
+}
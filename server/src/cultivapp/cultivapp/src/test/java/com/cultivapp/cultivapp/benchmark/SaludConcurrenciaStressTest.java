@@ -0,0 +1,178 @@
+package com.cultivapp.cultivapp.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cultivapp.cultivapp.models.Cultivo;
+import com.cultivapp.cultivapp.models.Especie;
+import com.cultivapp.cultivapp.models.Regla;
+import com.cultivapp.cultivapp.models.Tarea;
+import com.cultivapp.cultivapp.models.Usuario;
+import com.cultivapp.cultivapp.models.enums.Estado;
+import com.cultivapp.cultivapp.models.enums.TipoRegla;
+import com.cultivapp.cultivapp.repositories.EspecieRepository;
+import com.cultivapp.cultivapp.repositories.ReglaRepository;
+import com.cultivapp.cultivapp.repositories.UsuarioRepository;
+import com.cultivapp.cultivapp.services.TareaService;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Stress test: ejecución concurrente de tareas sobre los mismos cultivos.
+ *
+ * Qué comprueba: que ninguna actualización de salud se pierda ni se aplique dos veces
+ * cuando muchas tareas de un cultivo terminan a la vez, cada tarea se ejecuta dos
+ * veces en paralelo y, al mismo tiempo, otras transacciones guardan la entidad Cultivo
+ * Cómo ejecutarlo: mvn test -Dtest=SaludConcurrenciaStressTest -Dcultivapp.benchmark=true
+ * Requiere la BD de desarrollo con los datos iniciales (usuarios, especies y reglas)
+ */
+@SpringBootTest(properties = "cultivapp.motor-tareas.habilitado=false")
+@EnabledIfSystemProperty(named = "cultivapp.benchmark", matches = "true")
+@DisplayName("Stress: salud sin actualizaciones perdidas")
+class SaludConcurrenciaStressTest {
+
+    private static final int CULTIVOS = 200;
+    // 75 + 3 x 5 = 90: por debajo del tope de 100, un doble efecto también se detecta
+    private static final int TAREAS_POR_CULTIVO = 3;
+    private static final int HILOS = 32;
+    private static final double SALUD_INICIAL = 75.0;
+    private static final double BONIFICACION_RIEGO = 5.0;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private EspecieRepository especieRepository;
+
+    @Autowired
+    private ReglaRepository reglaRepository;
+
+    @Autowired
+    private TareaService tareaService;
+
+    private final List<Integer> cultivoIds = new ArrayList<>();
+    private final List<Integer> tareaIds = new ArrayList<>();
+
+    @BeforeEach
+    void crearTareas() {
+        Integer reglaId = reglaRepository.findAll().stream()
+            .filter(r -> r.getTipo() == TipoRegla.RIEGO)
+            .findFirst().orElseThrow().getId();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Usuario usuario = usuarioRepository.findByEmail("productor@cultivapp.com").orElseThrow();
+            Especie especie = especieRepository.findAll().get(0);
+            Regla regla = entityManager.getReference(Regla.class, reglaId);
+            LocalDateTime ahora = LocalDateTime.now();
+
+            for (int c = 0; c < CULTIVOS; c++) {
+                Cultivo cultivo = Cultivo.builder()
+                    .nombre("Stress salud " + c)
+                    .usuario(usuario)
+                    .especie(especie)
+                    .estado(Estado.ACTIVO)
+                    .build();
+                entityManager.persist(cultivo);
+                cultivoIds.add(cultivo.getId());
+
+                for (int t = 0; t < TAREAS_POR_CULTIVO; t++) {
+                    Tarea tarea = Tarea.builder()
+                        .cultivo(cultivo)
+                        .regla(regla)
+                        .fechaProgramada(ahora)
+                        .fechaVencimiento(ahora.plusDays(7))
+                        .build();
+                    entityManager.persist(tarea);
+                    tareaIds.add(tarea.getId());
+                }
+            }
+        });
+    }
+
+    @AfterEach
+    void limpiar() {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createQuery("DELETE FROM ProximaTarea p WHERE p.cultivo.id IN :ids")
+                .setParameter("ids", cultivoIds)
+                .executeUpdate();
+            entityManager.createQuery("DELETE FROM Tarea t WHERE t.cultivo.id IN :ids")
+                .setParameter("ids", cultivoIds)
+                .executeUpdate();
+            entityManager.createQuery("DELETE FROM Cultivo c WHERE c.id IN :ids")
+                .setParameter("ids", cultivoIds)
+                .executeUpdate();
+        });
+    }
+
+    @Test
+    @DisplayName("Tareas duplicadas y guardados de Cultivo en paralelo: salud exacta")
+    void sinActualizacionesPerdidas() throws Exception {
+        // Cada tarea se ejecuta dos veces, en orden aleatorio
+        List<Integer> ejecuciones = new ArrayList<>(tareaIds);
+        ejecuciones.addAll(tareaIds);
+        Collections.shuffle(ejecuciones);
+
+        ExecutorService pool = Executors.newFixedThreadPool(HILOS);
+        long inicio = System.nanoTime();
+        List<CompletableFuture<Void>> futuros = new ArrayList<>();
+        for (int i = 0; i < ejecuciones.size(); i++) {
+            Integer tareaId = ejecuciones.get(i);
+            futuros.add(CompletableFuture.runAsync(() -> tareaService.ejecutarTarea(tareaId), pool));
+
+            // Entre medias, transacciones que cargan y guardan el cultivo completo (como updateCultivo)
+            if (i % 10 == 0) {
+                Integer cultivoId = cultivoIds.get(i % CULTIVOS);
+                futuros.add(CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+                    Cultivo cultivo = entityManager.find(Cultivo.class, cultivoId);
+                    cultivo.setNombre(cultivo.getNombre() + ".");
+                }), pool));
+            }
+        }
+        CompletableFuture.allOf(futuros.toArray(CompletableFuture[]::new)).get(5, TimeUnit.MINUTES);
+        pool.shutdown();
+        double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+
+        System.out.printf("✓ %d ejecuciones con %d hilos: %.0f ejecuciones/s%n",
+            ejecuciones.size(), HILOS, ejecuciones.size() / segundos);
+
+        double esperado = SALUD_INICIAL + TAREAS_POR_CULTIVO * BONIFICACION_RIEGO;
+        List<Double> salud = entityManager.createQuery(
+                "SELECT c.saludRiego FROM Cultivo c WHERE c.id IN :ids", Double.class)
+            .setParameter("ids", cultivoIds)
+            .getResultList();
+        assertEquals(CULTIVOS, salud.size());
+        assertTrue(salud.stream().allMatch(s -> s == esperado),
+            "Todos los cultivos deben quedar con salud de riego " + esperado + ": " + salud);
+
+        Long realizadas = entityManager.createQuery(
+                "SELECT COUNT(t) FROM Tarea t WHERE t.id IN :ids AND t.realizada = true", Long.class)
+            .setParameter("ids", tareaIds)
+            .getSingleResult();
+        assertEquals((long) tareaIds.size(), realizadas, "Todas las tareas deben quedar realizadas una vez");
+    }
+}
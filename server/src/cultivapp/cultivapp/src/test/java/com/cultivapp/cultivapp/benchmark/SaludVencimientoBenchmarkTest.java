@@ -0,0 +1,267 @@
+package com.cultivapp.cultivapp.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cultivapp.cultivapp.models.Cultivo;
+import com.cultivapp.cultivapp.models.Especie;
+import com.cultivapp.cultivapp.models.Regla;
+import com.cultivapp.cultivapp.models.Tarea;
+import com.cultivapp.cultivapp.models.Usuario;
+import com.cultivapp.cultivapp.models.enums.Estado;
+import com.cultivapp.cultivapp.models.enums.TipoRegla;
+import com.cultivapp.cultivapp.repositories.EspecieRepository;
+import com.cultivapp.cultivapp.repositories.ReglaRepository;
+import com.cultivapp.cultivapp.repositories.TareaRepository;
+import com.cultivapp.cultivapp.repositories.UsuarioRepository;
+import com.cultivapp.cultivapp.services.ReglaContext;
+import com.cultivapp.cultivapp.services.SaludService;
+import com.cultivapp.cultivapp.services.strategies.ResultadoTarea;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Benchmark: pase nocturno con 100k tareas vencidas.
+ *
+ * Qué mide: tareas/segundo y filas de salud escritas con penalizaciones agregadas por
+ * cultivo (el camino anterior) frente a solo marcar las tareas y calcular el decaimiento
+ * al leer; y el coste de esa lectura (lecturas de salud/segundo)
+ * Cómo ejecutarlo: mvn test -Dtest=SaludVencimientoBenchmarkTest -Dcultivapp.benchmark=true
+ * Requiere la BD de desarrollo con los datos iniciales (usuarios, especies y reglas)
+ */
+@SpringBootTest(properties = "cultivapp.motor-tareas.habilitado=false")
+@EnabledIfSystemProperty(named = "cultivapp.benchmark", matches = "true")
+@DisplayName("Benchmark: salud por tareas vencidas")
+class SaludVencimientoBenchmarkTest {
+
+    private static final int CULTIVOS = 10_000;
+    // Pocas tareas por cultivo: la salud no llega a 0 y ambos caminos se pueden comparar
+    private static final int TAREAS_POR_CULTIVO = 10;
+    private static final int TAREAS = CULTIVOS * TAREAS_POR_CULTIVO;
+    private static final int FLUSH_CADA = 100;
+    // Un día de decaimiento equivale a una penalización; la diferencia es el tiempo de la medición
+    private static final double TOLERANCIA = 0.1;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private EspecieRepository especieRepository;
+
+    @Autowired
+    private ReglaRepository reglaRepository;
+
+    @Autowired
+    private TareaRepository tareaRepository;
+
+    @Autowired
+    private ReglaContext reglaContext;
+
+    @Autowired
+    private SaludService saludService;
+
+    private Integer primerCultivoId;
+    private Integer ultimoCultivoId;
+    private LocalDateTime vencimiento;
+
+    @BeforeEach
+    void crearTareasVencidas() {
+        // Una regla de cada tipo para repartir las tareas entre los tres indicadores
+        List<Integer> reglaIds = new ArrayList<>(reglaRepository.findAll().stream()
+            .filter(r -> r.getTipo() != null)
+            .collect(Collectors.toMap(Regla::getTipo, Regla::getId, (a, b) -> a))
+            .values());
+        vencimiento = LocalDateTime.now().minusDays(1);
+
+        List<Integer> ids = transactionTemplate.execute(status -> {
+            Usuario usuario = usuarioRepository.findByEmail("productor@cultivapp.com").orElseThrow();
+            Especie especie = especieRepository.findAll().get(0);
+            List<Integer> creados = new ArrayList<>();
+
+            for (int c = 0; c < CULTIVOS; c++) {
+                Cultivo cultivo = Cultivo.builder()
+                    .nombre("Benchmark salud " + c)
+                    .usuario(usuario)
+                    .especie(especie)
+                    .estado(Estado.ACTIVO)
+                    .build();
+                entityManager.persist(cultivo);
+                creados.add(cultivo.getId());
+
+                for (int t = 0; t < TAREAS_POR_CULTIVO; t++) {
+                    entityManager.persist(Tarea.builder()
+                        .cultivo(cultivo)
+                        .regla(entityManager.getReference(Regla.class, reglaIds.get(t % reglaIds.size())))
+                        .fechaProgramada(vencimiento.minusDays(1))
+                        .fechaVencimiento(vencimiento)
+                        .build());
+                }
+                if ((c + 1) % FLUSH_CADA == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                    usuario = entityManager.getReference(Usuario.class, usuario.getId());
+                    especie = entityManager.getReference(Especie.class, especie.getId());
+                }
+            }
+            return creados;
+        });
+        primerCultivoId = ids.get(0);
+        ultimoCultivoId = ids.get(ids.size() - 1);
+        reiniciar();
+    }
+
+    @AfterEach
+    void limpiar() {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createQuery("DELETE FROM Tarea t WHERE t.cultivo.id BETWEEN :desde AND :hasta")
+                .setParameter("desde", primerCultivoId)
+                .setParameter("hasta", ultimoCultivoId)
+                .executeUpdate();
+            entityManager.createQuery("DELETE FROM Cultivo c WHERE c.id BETWEEN :desde AND :hasta")
+                .setParameter("desde", primerCultivoId)
+                .setParameter("hasta", ultimoCultivoId)
+                .executeUpdate();
+        });
+    }
+
+    @Test
+    @DisplayName("100k vencimientos: penalizaciones escritas vs decaimiento calculado al leer")
+    void compararEscrituraVsPerezoso() {
+        long[] filasEscritas = new long[1];
+        double escritura = medir(() -> filasEscritas[0] = vencerEscribiendoSalud());
+        Map<Integer, double[]> saludEscrita = leerSaludGuardada();
+
+        reiniciar();
+        double perezoso = medir(() -> transactionTemplate.executeWithoutResult(status ->
+            tareaRepository.marcarVencidas(LocalDateTime.now(), primerCultivoId, ultimoCultivoId)));
+        long inicio = System.nanoTime();
+        Map<Integer, double[]> saludCalculada = leerSaludActual();
+        double lecturas = CULTIVOS / ((System.nanoTime() - inicio) / 1_000_000_000.0);
+
+        System.out.printf("✓ %d vencimientos escribiendo penalizaciones: %.0f tareas/s, %d filas de salud%n",
+            TAREAS, TAREAS / escritura, filasEscritas[0]);
+        System.out.printf("✓ %d vencimientos con decaimiento perezoso: %.0f tareas/s (x%.1f), 0 filas de salud%n",
+            TAREAS, TAREAS / perezoso, escritura / perezoso);
+        System.out.printf("✓ Salud actual calculada al leer: %.0f cultivos/s%n", lecturas);
+
+        // Un día vencida decae lo mismo que la penalización de antes
+        saludEscrita.forEach((id, salud) -> {
+            for (int i = 0; i < 3; i++) {
+                assertEquals(salud[i], saludCalculada.get(id)[i], TOLERANCIA,
+                    "La salud del cultivo " + id + " debe coincidir en ambos caminos");
+            }
+        });
+    }
+
+    // Camino anterior: conteo por (cultivo, tipo), penalizaciones agregadas y un UPDATE acotado por cultivo
+    private long vencerEscribiendoSalud() {
+        Long filas = transactionTemplate.execute(status -> {
+            LocalDateTime ahora = LocalDateTime.now();
+            List<ResultadoTarea> resultados = entityManager.createQuery("""
+                    SELECT t.cultivo.id, t.regla.tipo, COUNT(t) FROM Tarea t
+                    WHERE t.realizada = false AND t.vencida = false AND t.fechaVencimiento < :ahora
+                    AND t.cultivo.id BETWEEN :desde AND :hasta
+                    GROUP BY t.cultivo.id, t.regla.tipo
+                    """, Object[].class)
+                .setParameter("ahora", ahora)
+                .setParameter("desde", primerCultivoId)
+                .setParameter("hasta", ultimoCultivoId)
+                .getResultStream()
+                .map(fila -> new ResultadoTarea((Integer) fila[0], (TipoRegla) fila[1], true, (Long) fila[2]))
+                .toList();
+            tareaRepository.marcarVencidas(ahora, primerCultivoId, ultimoCultivoId);
+
+            long escritas = 0;
+            for (var entrada : reglaContext.calcularDeltas(resultados).entrySet()) {
+                escritas += entityManager.createQuery("""
+                        UPDATE Cultivo c SET
+                            c.saludRiego = LEAST(100.0, GREATEST(0.0, c.saludRiego + :riego)),
+                            c.saludFertilizacion = LEAST(100.0, GREATEST(0.0, c.saludFertilizacion + :fertilizacion)),
+                            c.saludMantenimiento = LEAST(100.0, GREATEST(0.0, c.saludMantenimiento + :mantenimiento))
+                        WHERE c.id = :id
+                        """)
+                    .setParameter("riego", entrada.getValue().getRiego())
+                    .setParameter("fertilizacion", entrada.getValue().getFertilizacion())
+                    .setParameter("mantenimiento", entrada.getValue().getMantenimiento())
+                    .setParameter("id", entrada.getKey())
+                    .executeUpdate();
+            }
+            return escritas;
+        });
+        return filas != null ? filas : 0;
+    }
+
+    // Tareas pendientes, salud inicial y evaluada al vencer las tareas, para repetir la medición
+    private void reiniciar() {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createQuery("UPDATE Tarea t SET t.vencida = false, t.activa = true WHERE t.cultivo.id BETWEEN :desde AND :hasta")
+                .setParameter("desde", primerCultivoId)
+                .setParameter("hasta", ultimoCultivoId)
+                .executeUpdate();
+            entityManager.createQuery("""
+                    UPDATE Cultivo c SET c.saludRiego = 75.0, c.saludFertilizacion = 75.0, c.saludMantenimiento = 75.0,
+                        c.saludEvaluadaEn = :evaluadaEn
+                    WHERE c.id BETWEEN :desde AND :hasta
+                    """)
+                .setParameter("evaluadaEn", vencimiento)
+                .setParameter("desde", primerCultivoId)
+                .setParameter("hasta", ultimoCultivoId)
+                .executeUpdate();
+        });
+    }
+
+    private double medir(Runnable paso) {
+        long inicio = System.nanoTime();
+        paso.run();
+        return (System.nanoTime() - inicio) / 1_000_000_000.0;
+    }
+
+    private Map<Integer, double[]> leerSaludGuardada() {
+        return transactionTemplate.execute(status -> cargarCultivos().stream()
+            .collect(Collectors.toMap(Cultivo::getId,
+                c -> new double[] { c.getSaludRiego(), c.getSaludFertilizacion(), c.getSaludMantenimiento() })));
+    }
+
+    // Como CultivoDetailDTO: la guardada menos el decaimiento, cultivo a cultivo
+    private Map<Integer, double[]> leerSaludActual() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime ahora = LocalDateTime.now();
+            Map<Integer, double[]> salud = new HashMap<>();
+            for (Cultivo cultivo : cargarCultivos()) {
+                SaludService.Salud actual = saludService.actual(cultivo, ahora);
+                salud.put(cultivo.getId(), new double[] { actual.riego(), actual.fertilizacion(), actual.mantenimiento() });
+            }
+            return salud;
+        });
+    }
+
+    private List<Cultivo> cargarCultivos() {
+        return entityManager.createQuery(
+                "SELECT c FROM Cultivo c WHERE c.id BETWEEN :desde AND :hasta", Cultivo.class)
+            .setParameter("desde", primerCultivoId)
+            .setParameter("hasta", ultimoCultivoId)
+            .getResultList();
+    }
+}
@@ -0,0 +1,175 @@
+package com.cultivapp.cultivapp.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cultivapp.cultivapp.models.Cultivo;
+import com.cultivapp.cultivapp.models.Regla;
+import com.cultivapp.cultivapp.models.Tarea;
+import com.cultivapp.cultivapp.models.enums.Estado;
+import com.cultivapp.cultivapp.repositories.EspecieRepository;
+import com.cultivapp.cultivapp.repositories.ReglaRepository;
+import com.cultivapp.cultivapp.repositories.UsuarioRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Benchmark: inserción de 100k tareas con ids IDENTITY (antes) y con ids pooled de
+ * secuencia sin batch (batch_size=1) y con batch (50).
+ *
+ * Qué mide: filas/segundo de los tres caminos. El de IDENTITY se reproduce en una tabla
+ * temporal gemela con la sentencia que Hibernate emite para ese mapeo: un INSERT ...
+ * RETURNING id por fila, sin batch posible porque cada id sale de su propio INSERT
+ * Cómo ejecutarlo: mvn test -Dtest=TareaInsertBenchmarkTest -Dcultivapp.benchmark=true
+ * Requiere la BD de desarrollo con los datos iniciales (usuarios, especies y reglas)
+ */
+@SpringBootTest(properties = "cultivapp.motor-tareas.habilitado=false")
+@EnabledIfSystemProperty(named = "cultivapp.benchmark", matches = "true")
+@DisplayName("Benchmark: inserción masiva de tareas")
+class TareaInsertBenchmarkTest {
+
+    private static final int TAREAS = 100_000;
+    private static final int FLUSH_CADA = 1_000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private EspecieRepository especieRepository;
+
+    @Autowired
+    private ReglaRepository reglaRepository;
+
+    private Integer cultivoId;
+    private Integer reglaId;
+
+    @BeforeEach
+    void crearCultivo() {
+        reglaId = reglaRepository.findAll().get(0).getId();
+        cultivoId = transactionTemplate.execute(status -> {
+            Cultivo cultivo = Cultivo.builder()
+                .nombre("Benchmark inserción de tareas")
+                .usuario(usuarioRepository.findByEmail("productor@cultivapp.com").orElseThrow())
+                .especie(especieRepository.findAll().get(0))
+                .estado(Estado.ACTIVO)
+                .build();
+            entityManager.persist(cultivo);
+            return cultivo.getId();
+        });
+    }
+
+    @AfterEach
+    void limpiar() {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createQuery("DELETE FROM Tarea t WHERE t.cultivo.id = :id")
+                .setParameter("id", cultivoId)
+                .executeUpdate();
+            entityManager.createQuery("DELETE FROM Cultivo c WHERE c.id = :id")
+                .setParameter("id", cultivoId)
+                .executeUpdate();
+        });
+    }
+
+    @Test
+    @DisplayName("100k tareas: filas/s con IDENTITY vs secuencia sin batch vs con batch de 50")
+    void compararBatch() {
+        double identidad = insertarConIdentidad();
+        double sinBatch = insertarTareas(1);
+        double conBatch = insertarTareas(50);
+
+        System.out.printf("✓ %d tareas con IDENTITY (antes): %.0f filas/s%n", TAREAS, identidad);
+        System.out.printf("✓ %d tareas con secuencia sin batch: %.0f filas/s (x%.1f)%n",
+            TAREAS, sinBatch, sinBatch / identidad);
+        System.out.printf("✓ %d tareas con secuencia y batch de 50: %.0f filas/s (x%.1f)%n",
+            TAREAS, conBatch, conBatch / identidad);
+
+        Long total = entityManager.createQuery("SELECT COUNT(t) FROM Tarea t WHERE t.cultivo.id = :id", Long.class)
+            .setParameter("id", cultivoId)
+            .getSingleResult();
+        assertEquals(2L * TAREAS, total, "Todas las tareas deben quedar persistidas");
+    }
+
+    // Camino anterior: tabla gemela de tareas con id IDENTITY, un INSERT ... RETURNING id por fila
+    private double insertarConIdentidad() {
+        long inicio = System.nanoTime();
+        Long filas = transactionTemplate.execute(status -> {
+            entityManager.createNativeQuery("""
+                    CREATE TEMP TABLE tareas_identidad (
+                        id INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                        cultivo_id INTEGER NOT NULL REFERENCES cultivos(id),
+                        regla_id INTEGER NOT NULL REFERENCES reglas(id),
+                        fecha_creacion TIMESTAMP NOT NULL,
+                        fecha_programada TIMESTAMP NOT NULL,
+                        activa BOOLEAN NOT NULL,
+                        realizada BOOLEAN NOT NULL,
+                        vencida BOOLEAN NOT NULL
+                    ) ON COMMIT DROP
+                    """)
+                .executeUpdate();
+            LocalDateTime ahora = LocalDateTime.now();
+
+            for (int i = 0; i < TAREAS; i++) {
+                entityManager.createNativeQuery("""
+                        INSERT INTO tareas_identidad (cultivo_id, regla_id, fecha_creacion, fecha_programada,
+                                                      activa, realizada, vencida)
+                        VALUES (:cultivoId, :reglaId, :ahora, :fecha, true, false, false)
+                        RETURNING id
+                        """)
+                    .setParameter("cultivoId", cultivoId)
+                    .setParameter("reglaId", reglaId)
+                    .setParameter("ahora", ahora)
+                    .setParameter("fecha", ahora.plusMinutes(i))
+                    .getSingleResult();
+            }
+            return ((Number) entityManager.createNativeQuery("SELECT COUNT(*) FROM tareas_identidad")
+                .getSingleResult()).longValue();
+        });
+        double porSegundo = TAREAS / ((System.nanoTime() - inicio) / 1_000_000_000.0);
+        assertEquals((long) TAREAS, filas, "Todas las tareas con IDENTITY deben quedar insertadas");
+        return porSegundo;
+    }
+
+    // Inserta TAREAS tareas con el tamaño de batch indicado y devuelve filas/segundo
+    private double insertarTareas(int batchSize) {
+        long inicio = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            Cultivo cultivo = entityManager.getReference(Cultivo.class, cultivoId);
+            Regla regla = entityManager.getReference(Regla.class, reglaId);
+            LocalDateTime ahora = LocalDateTime.now();
+
+            for (int i = 0; i < TAREAS; i++) {
+                entityManager.persist(Tarea.builder()
+                    .cultivo(cultivo)
+                    .regla(regla)
+                    .fechaProgramada(ahora.plusMinutes(i))
+                    .build());
+                if ((i + 1) % FLUSH_CADA == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                    cultivo = entityManager.getReference(Cultivo.class, cultivoId);
+                    regla = entityManager.getReference(Regla.class, reglaId);
+                }
+            }
+        });
+        return TAREAS / ((System.nanoTime() - inicio) / 1_000_000_000.0);
+    }
+}
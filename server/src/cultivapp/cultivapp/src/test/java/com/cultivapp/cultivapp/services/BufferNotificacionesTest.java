@@ -0,0 +1,43 @@
+package com.cultivapp.cultivapp.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.cultivapp.cultivapp.services.BufferNotificaciones.Resumen;
+
+/**
+ * Unit test: resumen de tareas generadas que el buffer agrupa por usuario.
+ *
+ * Qué comprueba: la redacción del mensaje del resumen según haya una tarea, varias en
+ * un mismo cultivo o varias repartidas en cultivos distintos. Sin base de datos
+ */
+@DisplayName("Buffer de notificaciones: redacción del resumen")
+class BufferNotificacionesTest {
+
+    @Test
+    @DisplayName("Una sola tarea se anuncia con el nombre del cultivo")
+    void unaTarea() {
+        Resumen resumen = Resumen.de(new TareaGeneradaEvent(7, 1, "Tomates"));
+        assertEquals("Nueva tarea generada en el cultivo Tomates", resumen.mensaje());
+    }
+
+    @Test
+    @DisplayName("Varias tareas del mismo cultivo se cuentan sin repetir el cultivo")
+    void variasTareasUnCultivo() {
+        Resumen resumen = Resumen.de(new TareaGeneradaEvent(7, 1, "Tomates"))
+            .sumar(Resumen.de(new TareaGeneradaEvent(7, 1, "Tomates")))
+            .sumar(Resumen.de(new TareaGeneradaEvent(7, 1, "Tomates")));
+        assertEquals("3 nuevas tareas en el cultivo Tomates", resumen.mensaje());
+    }
+
+    @Test
+    @DisplayName("Tareas en varios cultivos se resumen por cantidad de cultivos")
+    void variasTareasVariosCultivos() {
+        Resumen resumen = Resumen.de(new TareaGeneradaEvent(7, 1, "Tomates"))
+            .sumar(Resumen.de(new TareaGeneradaEvent(7, 2, "Lechugas")))
+            .sumar(Resumen.de(new TareaGeneradaEvent(7, 1, "Tomates")));
+        assertEquals("3 nuevas tareas en 2 cultivos", resumen.mensaje());
+    }
+}
@@ -0,0 +1,126 @@
+package com.cultivapp.cultivapp.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.cultivapp.cultivapp.dto.CalendarioTareasDTO.TareaProyectada;
+import com.cultivapp.cultivapp.models.Cultivo;
+import com.cultivapp.cultivapp.models.Especie;
+import com.cultivapp.cultivapp.models.Etapa;
+import com.cultivapp.cultivapp.models.Regla;
+import com.cultivapp.cultivapp.models.Tarea;
+import com.cultivapp.cultivapp.models.enums.TipoEtapa;
+import com.cultivapp.cultivapp.models.enums.TipoRegla;
+import com.cultivapp.cultivapp.repositories.CultivoRepository;
+import com.cultivapp.cultivapp.repositories.EtapaRepository;
+import com.cultivapp.cultivapp.repositories.ProximaTareaRepository;
+import com.cultivapp.cultivapp.repositories.TareaRepository;
+
+/**
+ * Unit test: proyección del calendario de tareas.
+ *
+ * Qué comprueba: que la proyección sigue la cadencia real del generador. Cada tarea
+ * proyectada vence un intervalo después de programarse (Tarea.@PrePersist) y la
+ * siguiente cae en ProximaTareaService.calcularSiguiente de la anterior, también al
+ * pasar de etapa. Sin base de datos: los repositorios son mocks
+ */
+@DisplayName("Calendario de tareas: misma cadencia que el generador")
+class CalendarioTareasServiceTest {
+
+    private static final int USUARIO = 1;
+    private static final int INTERVALO = 3;
+
+    private final CultivoRepository cultivoRepository = mock(CultivoRepository.class);
+    private final EtapaRepository etapaRepository = mock(EtapaRepository.class);
+    private final TareaRepository tareaRepository = mock(TareaRepository.class);
+    private final ProximaTareaRepository proximaTareaRepository = mock(ProximaTareaRepository.class);
+
+    private final CalendarioTareasService service = new CalendarioTareasService(
+        cultivoRepository, etapaRepository, tareaRepository, proximaTareaRepository);
+
+    private Regla regla;
+
+    @BeforeEach
+    void crearModelo() {
+        Especie especie = Especie.builder().id(10).nombre("Tomate").build();
+        regla = Regla.builder().id(100).tipo(TipoRegla.RIEGO).descripcion("Regar").intervaloDias(INTERVALO).build();
+
+        // La misma regla en dos etapas: la serie debe continuar sin saltos al cambiar de etapa
+        Etapa siembra = Etapa.builder().id(1).especie(especie).orden((short) 1).nombre(TipoEtapa.SIEMBRA)
+            .duracionDias(20).reglas(List.of(regla)).build();
+        Etapa desarrollo = Etapa.builder().id(2).especie(especie).orden((short) 2)
+            .nombre(TipoEtapa.DESARROLLO_VEGETATIVO).reglas(List.of(regla)).build();
+
+        Cultivo cultivo = Cultivo.builder().id(50).nombre("Parcela").especie(especie)
+            .etapaActual((short) 1).fechaInicioEtapa(LocalDateTime.now().minusDays(2)).build();
+
+        when(cultivoRepository.findActivosByUsuarioId(USUARIO)).thenReturn(List.of(cultivo));
+        when(etapaRepository.findConReglasByEspecieIds(any())).thenReturn(List.of(siembra, desarrollo));
+    }
+
+    @Test
+    @DisplayName("Desde la última tarea: cada proyectada es calcularSiguiente de la anterior")
+    void proyeccionDesdeUltimaTarea() {
+        LocalDateTime ultimoVencimiento = LocalDateTime.now().minusDays(1);
+        TareaRepository.UltimaTarea ultima = mock(TareaRepository.UltimaTarea.class);
+        when(ultima.getCultivoId()).thenReturn(50);
+        when(ultima.getReglaId()).thenReturn(regla.getId());
+        when(ultima.getUltimaFecha()).thenReturn(ultimoVencimiento);
+        when(tareaRepository.findUltimasByUsuarioId(USUARIO)).thenReturn(List.of(ultima));
+
+        List<TareaProyectada> tareas = service.proyectar(USUARIO, 60).getTareas();
+
+        assertTrue(tareas.size() > 5, "Debe proyectar varias tareas en 60 días: " + tareas.size());
+        assertEquals(ultimoVencimiento.plusDays(INTERVALO), tareas.get(0).getFechaProgramada(),
+            "La primera sale del último vencimiento, como sembrarFaltantes");
+        verificarCadencia(tareas);
+    }
+
+    @Test
+    @DisplayName("Desde el índice de próximas tareas: misma cadencia")
+    void proyeccionDesdeIndice() {
+        LocalDateTime proxima = LocalDateTime.now().plusHours(5);
+        ProximaTareaRepository.Vencimiento vencimiento = mock(ProximaTareaRepository.Vencimiento.class);
+        when(vencimiento.getCultivoId()).thenReturn(50);
+        when(vencimiento.getReglaId()).thenReturn(regla.getId());
+        when(vencimiento.getFechaProxima()).thenReturn(proxima);
+        when(proximaTareaRepository.findVencimientosByUsuarioId(USUARIO)).thenReturn(List.of(vencimiento));
+
+        List<TareaProyectada> tareas = service.proyectar(USUARIO, 60).getTareas();
+
+        assertEquals(proxima, tareas.get(0).getFechaProgramada(), "La primera es la del índice");
+        verificarCadencia(tareas);
+    }
+
+    // Reproduce lo que harían el generador y Tarea.@PrePersist con cada tarea proyectada
+    private void verificarCadencia(List<TareaProyectada> tareas) {
+        for (int i = 0; i < tareas.size(); i++) {
+            TareaProyectada proyectada = tareas.get(i);
+            Tarea generada = Tarea.builder()
+                .regla(regla)
+                .fechaProgramada(proyectada.getFechaProgramada())
+                .fechaVencimiento(proyectada.getFechaProgramada().plusDays(INTERVALO))
+                .build();
+            assertEquals(generada.getFechaVencimiento(), proyectada.getFechaVencimiento(),
+                "El vencimiento proyectado debe ser el que pone Tarea.@PrePersist");
+            if (i + 1 < tareas.size()) {
+                assertEquals(ProximaTareaService.calcularSiguiente(generada), tareas.get(i + 1).getFechaProgramada(),
+                    "La tarea " + (i + 1) + " debe caer en calcularSiguiente de la anterior");
+            }
+        }
+        long dias = ChronoUnit.DAYS.between(tareas.get(0).getFechaProgramada(),
+            tareas.get(tareas.size() - 1).getFechaProgramada());
+        assertEquals(dias / (2 * INTERVALO) + 1, tareas.size(), "Una tarea cada dos intervalos");
+    }
+}
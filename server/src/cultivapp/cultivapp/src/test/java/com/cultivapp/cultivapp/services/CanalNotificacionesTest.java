@@ -0,0 +1,108 @@
+package com.cultivapp.cultivapp.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.cultivapp.cultivapp.dto.NotificacionDTO;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Unit test: canal SSE de notificaciones.
+ *
+ * Qué comprueba: que un suscriptor que deja de leer se expulsa al llenarse su cola sin
+ * afectar a los demás, y que pasado el límite de conexiones por usuario se cierra la
+ * más antigua. El ejecutor de envíos queda bloqueado para que las colas no se vacíen
+ */
+@DisplayName("Canal de notificaciones: expulsión por cola llena y límite por usuario")
+class CanalNotificacionesTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CountDownLatch liberar = new CountDownLatch(1);
+    private ExecutorService envios;
+
+    @BeforeEach
+    void bloquearEnvios() {
+        // Un solo hilo ocupado: las tareas de vaciado esperan y lo publicado se acumula en las colas
+        envios = Executors.newSingleThreadExecutor();
+        envios.execute(() -> {
+            try {
+                liberar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+
+    @AfterEach
+    void liberarEnvios() {
+        liberar.countDown();
+        envios.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Cola llena: se expulsa solo ese suscriptor y se cuenta")
+    void colaLlenaExpulsa() {
+        CanalNotificaciones canal = new CanalNotificaciones(2, 5, 60_000, registry, envios);
+        canal.suscribir(1);
+        canal.suscribir(2);
+
+        canal.onNotificacionesCreadas(entregas(1, 2));
+        assertEquals(2, canal.getSuscriptores(), "Con la cola justa nadie sale");
+
+        canal.onNotificacionesCreadas(entregas(1, 1));
+        assertEquals(1, canal.getSuscriptores(), "El usuario 1 llenó su cola y sale; el 2 sigue");
+        assertEquals(1.0, registry.counter("cultivapp.notificaciones.push.expulsados").count());
+
+        // El usuario expulsado ya no recibe (ni se vuelve a contar)
+        canal.onNotificacionesCreadas(entregas(1, 3));
+        assertEquals(1.0, registry.counter("cultivapp.notificaciones.push.expulsados").count());
+    }
+
+    @Test
+    @DisplayName("Aviso global a una cola llena también expulsa")
+    void avisoGlobalColaLlena() {
+        CanalNotificaciones canal = new CanalNotificaciones(1, 5, 60_000, registry, envios);
+        canal.suscribir(1);
+        canal.suscribir(2);
+
+        canal.onNotificacionesCreadas(entregas(null, 2));
+        assertEquals(0, canal.getSuscriptores());
+        assertEquals(2.0, registry.counter("cultivapp.notificaciones.push.expulsados").count());
+    }
+
+    @Test
+    @DisplayName("Límite por usuario: la conexión más antigua se cierra")
+    void limitePorUsuario() {
+        CanalNotificaciones canal = new CanalNotificaciones(1, 2, 60_000, registry, envios);
+        canal.suscribir(1);
+        canal.suscribir(1);
+        canal.suscribir(2);
+        assertEquals(3, canal.getSuscriptores());
+
+        canal.suscribir(1);
+        assertEquals(3, canal.getSuscriptores(), "El usuario 1 se queda en su límite de 2");
+
+        // No es una expulsión por cola llena
+        assertEquals(0.0, registry.counter("cultivapp.notificaciones.push.expulsados").count());
+    }
+
+    private static NotificacionesCreadasEvent entregas(Integer usuarioId, int cantidad) {
+        List<NotificacionesCreadasEvent.Entrega> lista = new ArrayList<>();
+        for (int i = 0; i < cantidad; i++) {
+            lista.add(new NotificacionesCreadasEvent.Entrega(usuarioId,
+                NotificacionDTO.builder().id(i + 1).mensaje("Aviso " + i).build()));
+        }
+        return new NotificacionesCreadasEvent(lista);
+    }
+}
@@ -0,0 +1,162 @@
+package com.cultivapp.cultivapp.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.cultivapp.cultivapp.models.Cultivo;
+import com.cultivapp.cultivapp.models.Especie;
+import com.cultivapp.cultivapp.models.Etapa;
+import com.cultivapp.cultivapp.models.Regla;
+import com.cultivapp.cultivapp.models.Usuario;
+import com.cultivapp.cultivapp.models.enums.TipoEtapa;
+import com.cultivapp.cultivapp.models.enums.TipoEventoOutbox;
+import com.cultivapp.cultivapp.repositories.CultivoRepository;
+import com.cultivapp.cultivapp.repositories.EspecieRepository;
+import com.cultivapp.cultivapp.repositories.EtapaRepository;
+import com.cultivapp.cultivapp.repositories.ReglaRepository;
+import com.cultivapp.cultivapp.repositories.UsuarioRepository;
+
+/**
+ * Unit test: modelo de ciclo de vida de una especie.
+ *
+ * Qué comprueba: la búsqueda de etapas por 'orden' sobre etapas desordenadas y sin
+ * duración, y el cálculo de recuperación de CultivoService.avanzarEtapasCumplidas
+ * cuando un cultivo debe varias etapas: la etapa alcanzada y su fecha de inicio
+ * exacta (inicio + duraciones acumuladas). Sin base de datos
+ */
+@DisplayName("Modelo de especie: búsqueda de etapas y recuperación de etapas atrasadas")
+class ModeloEspecieTest {
+
+    private static final int ESPECIE = 10;
+
+    // Etapas de 10 y 5 días y una última sin duración, entregadas desordenadas
+    private static final List<Etapa> ETAPAS = List.of(
+        etapa(3, (short) 3, TipoEtapa.FLORACION, null, List.of()),
+        etapa(1, (short) 1, TipoEtapa.SIEMBRA, 10, List.of(regla(100, 2), regla(101, null))),
+        etapa(2, (short) 2, TipoEtapa.DESARROLLO_VEGETATIVO, 5, List.of(regla(102, 7))));
+
+    private final ModeloEspecie modelo = new ModeloEspecie(ESPECIE, 1, ETAPAS);
+
+    @Test
+    @DisplayName("Las etapas se indexan por orden y se recorren en ese orden")
+    void busquedaDeEtapas() {
+        assertEquals(3, modelo.cantidadEtapas());
+        assertEquals(0, modelo.indiceDe((short) 1));
+        assertEquals(2, modelo.indiceDe((short) 3));
+        assertEquals(ModeloEspecie.SIN_VALOR, modelo.indiceDe((short) 4));
+
+        assertEquals(1, modelo.siguiente(0));
+        assertEquals(ModeloEspecie.SIN_VALOR, modelo.siguiente(2), "La última etapa no tiene siguiente");
+        assertEquals(TipoEtapa.DESARROLLO_VEGETATIVO, modelo.nombre(1));
+        assertEquals((short) 3, modelo.orden(2));
+
+        assertEquals(10, modelo.duracionDias(0));
+        assertEquals(ModeloEspecie.SIN_VALOR, modelo.duracionDias(2));
+        assertEquals(2, modelo.cantidadReglas(0));
+        assertEquals(101, modelo.reglaId(0, 1));
+        assertEquals(ModeloEspecie.SIN_VALOR, modelo.intervaloDias(0, 1), "Regla sin intervalo");
+    }
+
+    @Test
+    @DisplayName("Etapas sin orden se ignoran")
+    void etapasSinOrden() {
+        ModeloEspecie conHuecos = new ModeloEspecie(ESPECIE, 1, List.of(
+            etapa(4, null, TipoEtapa.COSECHA, 3, List.of()),
+            etapa(1, (short) 1, TipoEtapa.SIEMBRA, 10, List.of())));
+        assertEquals(1, conHuecos.cantidadEtapas());
+        assertEquals(ModeloEspecie.SIN_VALOR, conHuecos.siguiente(0));
+    }
+
+    @Test
+    @DisplayName("Un cultivo atrasado salta todas las etapas cumplidas con su fecha exacta")
+    void recuperacionDeVariasEtapas() {
+        Fixture f = new Fixture();
+        LocalDateTime ahora = LocalDateTime.of(2025, 6, 30, 22, 10);
+        LocalDateTime inicio = ahora.minusDays(17);
+        Cultivo cultivo = cultivo(1, inicio);
+
+        assertEquals(1, f.service.avanzarEtapasCumplidas(List.of(cultivo), ahora));
+
+        // 10 + 5 días cumplidos: llega a la etapa 3, que empezó el día 15
+        assertEquals((short) 3, cultivo.getEtapaActual());
+        assertEquals(inicio.plusDays(15), cultivo.getFechaInicioEtapa());
+        assertNull(cultivo.getFechaFinEtapa(), "La última etapa no tiene fin");
+        verify(f.outboxService).registrar(eq(TipoEventoOutbox.ETAPA_AVANZADA), eq(7), eq(1),
+            eq("cultivo Parcela avanzó 2 etapas, ahora en etapa: FLORACION"));
+    }
+
+    @Test
+    @DisplayName("Un cultivo con una etapa cumplida avanza solo una y recalcula su fin")
+    void recuperacionDeUnaEtapa() {
+        Fixture f = new Fixture();
+        LocalDateTime ahora = LocalDateTime.of(2025, 6, 30, 22, 10);
+        LocalDateTime inicio = ahora.minusDays(12);
+        Cultivo cultivo = cultivo(1, inicio);
+
+        assertEquals(1, f.service.avanzarEtapasCumplidas(List.of(cultivo), ahora));
+
+        assertEquals((short) 2, cultivo.getEtapaActual());
+        assertEquals(inicio.plusDays(10), cultivo.getFechaInicioEtapa());
+        assertEquals(inicio.plusDays(15), cultivo.getFechaFinEtapa());
+    }
+
+    @Test
+    @DisplayName("Sin etapas cumplidas no hay cambios ni eventos")
+    void sinEtapasCumplidas() {
+        Fixture f = new Fixture();
+        LocalDateTime ahora = LocalDateTime.of(2025, 6, 30, 22, 10);
+        Cultivo cultivo = cultivo(1, ahora.minusDays(10));
+
+        // Justo al cumplir la duración todavía no avanza: hace falta pasarla
+        assertEquals(0, f.service.avanzarEtapasCumplidas(List.of(cultivo), ahora));
+        assertEquals((short) 1, cultivo.getEtapaActual());
+        verify(f.eventPublisher, never()).publishEvent(any(ProgramacionTareasCambiadaEvent.class));
+    }
+
+    private final class Fixture {
+        final OutboxService outboxService = mock(OutboxService.class);
+        final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+        final CultivoService service;
+
+        Fixture() {
+            ModeloEspecieCache cache = mock(ModeloEspecieCache.class);
+            when(cache.get(ESPECIE)).thenReturn(modelo);
+            service = new CultivoService(mock(EtapaRepository.class), mock(CultivoRepository.class),
+                mock(UsuarioRepository.class), mock(EspecieRepository.class), outboxService,
+                mock(ProximaTareaService.class), eventPublisher, mock(ReglaRepository.class), cache,
+                mock(SaludService.class));
+        }
+    }
+
+    private static Cultivo cultivo(int etapaActual, LocalDateTime inicioEtapa) {
+        return Cultivo.builder()
+            .id(1)
+            .nombre("Parcela")
+            .especie(Especie.builder().id(ESPECIE).build())
+            .usuario(Usuario.builder().id(7).build())
+            .etapaActual((short) etapaActual)
+            .fechaInicioEtapa(inicioEtapa)
+            .build();
+    }
+
+    private static Etapa etapa(int id, Short orden, TipoEtapa nombre, Integer duracion, List<Regla> reglas) {
+        return Etapa.builder().id(id).orden(orden).nombre(nombre).duracionDias(duracion).reglas(reglas).build();
+    }
+
+    private static Regla regla(int id, Integer intervalo) {
+        return Regla.builder().id(id).intervaloDias(intervalo).build();
+    }
+}
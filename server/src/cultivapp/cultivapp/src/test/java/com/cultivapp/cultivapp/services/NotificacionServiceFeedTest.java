@@ -0,0 +1,149 @@
+package com.cultivapp.cultivapp.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+
+import com.cultivapp.cultivapp.dto.PaginaNotificacionesDTO;
+import com.cultivapp.cultivapp.models.Notificacion;
+import com.cultivapp.cultivapp.models.NotificacionGlobal;
+import com.cultivapp.cultivapp.models.Usuario;
+import com.cultivapp.cultivapp.repositories.AvisoDescartadoRepository;
+import com.cultivapp.cultivapp.repositories.CursorNotificacionRepository;
+import com.cultivapp.cultivapp.repositories.NotificacionGlobalRepository;
+import com.cultivapp.cultivapp.repositories.NotificacionRepository;
+import com.cultivapp.cultivapp.repositories.UsuarioRepository;
+
+/**
+ * Unit test: feed paginado que mezcla notificaciones propias y avisos globales.
+ *
+ * Qué comprueba: recorriendo el feed página a página con el cursor 'siguiente', cada
+ * notificación aparece exactamente una vez y en orden de feed, también cuando propias
+ * (id positivo) y globales (id negativo) comparten fecha en el borde de una página.
+ * Los repositorios se simulan en memoria con la misma semántica que sus consultas
+ */
+@DisplayName("Feed de notificaciones: mezcla por cursor de propias y globales")
+class NotificacionServiceFeedTest {
+
+    private static final int USUARIO = 7;
+    private static final LocalDateTime T = LocalDateTime.of(2025, 6, 30, 8, 0);
+    private static final LocalDateTime REGISTRO = T.minusDays(1);
+
+    private final NotificacionRepository notificacionRepository = mock(NotificacionRepository.class);
+    private final UsuarioRepository usuarioRepository = mock(UsuarioRepository.class);
+    private final NotificacionGlobalRepository notificacionGlobalRepository = mock(NotificacionGlobalRepository.class);
+    private final CursorNotificacionRepository cursorRepository = mock(CursorNotificacionRepository.class);
+
+    private final NotificacionService service = new NotificacionService(notificacionRepository, usuarioRepository,
+        notificacionGlobalRepository, cursorRepository, mock(AvisoDescartadoRepository.class),
+        mock(ApplicationEventPublisher.class));
+
+    // Varias propias y globales a la misma fecha para forzar empates en los bordes
+    private final List<Notificacion> propias = List.of(
+        propia(1, T), propia(2, T.plusMinutes(1)), propia(3, T.plusMinutes(1)),
+        propia(4, T.plusMinutes(2)), propia(5, T.plusMinutes(3)), propia(6, T.plusMinutes(3)),
+        propia(7, T.plusMinutes(3)));
+    private final List<NotificacionGlobal> globales = List.of(
+        global(1, REGISTRO.minusHours(1)), global(2, T.plusMinutes(1)), global(3, T.plusMinutes(1)),
+        global(4, T.plusMinutes(3)), global(5, T.plusMinutes(4)), global(6, T));
+
+    @Test
+    @DisplayName("Cada notificación aparece una vez y en orden con cualquier tamaño de página")
+    void recorridoCompletoSinHuecosNiRepetidos() {
+        prepararRepositorios();
+        // El aviso 1 es anterior al registro del usuario: no forma parte del feed
+        List<Integer> esperado = new ArrayList<>();
+        propias.forEach(n -> esperado.add(n.getId()));
+        globales.stream().filter(g -> !g.getFecha().isBefore(REGISTRO)).forEach(g -> esperado.add(-g.getId()));
+        List<Integer> esperadoOrdenado = esperado.stream().sorted(Comparator.comparing(this::fechaDe)
+            .thenComparing(Comparator.<Integer>naturalOrder()).reversed()).toList();
+
+        for (int limite = 1; limite <= esperado.size() + 1; limite++) {
+            assertEquals(esperadoOrdenado, recorrer(limite), "Con límite " + limite);
+        }
+    }
+
+    @Test
+    @DisplayName("A igual fecha van primero las propias y luego los avisos por id creciente")
+    void desempateEnLaMismaFecha() {
+        prepararRepositorios();
+        List<Integer> ids = recorrer(2);
+        // T+3: propias 7, 6, 5 y luego el aviso 4; T+1: propias 3, 2 y luego avisos 2, 3
+        assertEquals(List.of(-5, 7, 6, 5, -4, 4, 3, 2, -2, -3, 1, -6), ids);
+    }
+
+    private List<Integer> recorrer(int limite) {
+        List<Integer> ids = new ArrayList<>();
+        String siguiente = null;
+        do {
+            PaginaNotificacionesDTO pagina = service.getFeed(USUARIO, siguiente, limite);
+            pagina.getNotificaciones().forEach(n -> ids.add(n.getId()));
+            siguiente = pagina.getSiguiente();
+        } while (siguiente != null);
+        return ids;
+    }
+
+    private void prepararRepositorios() {
+        when(usuarioRepository.findById(USUARIO))
+            .thenReturn(Optional.of(Usuario.builder().id(USUARIO).fechaRegistro(REGISTRO).build()));
+        when(cursorRepository.findById(USUARIO)).thenReturn(Optional.empty());
+
+        // (fecha, id) < (:fecha, :id) ORDER BY fecha DESC, id DESC LIMIT :limite
+        when(notificacionRepository.findPaginaAntesDe(eq(USUARIO), any(), anyInt(), anyInt())).thenAnswer(inv -> {
+            LocalDateTime fecha = inv.getArgument(1);
+            int id = inv.getArgument(2);
+            int limite = inv.getArgument(3);
+            return propias.stream()
+                .filter(n -> n.getFecha().isBefore(fecha) || (n.getFecha().equals(fecha) && n.getId() < id))
+                .sorted(Comparator.comparing(Notificacion::getFecha).thenComparing(Notificacion::getId).reversed())
+                .limit(limite)
+                .toList();
+        });
+
+        // fecha >= :desde AND id > :borradaHasta AND (fecha < :fecha OR (fecha = :fecha AND id > :idAviso))
+        // ORDER BY fecha DESC, id ASC
+        when(notificacionGlobalRepository.findPaginaAntesDe(eq(USUARIO), any(), anyInt(), any(), anyInt(), any()))
+            .thenAnswer(inv -> {
+                LocalDateTime desde = inv.getArgument(1);
+                int borradaHasta = inv.getArgument(2);
+                LocalDateTime fecha = inv.getArgument(3);
+                int idAviso = inv.getArgument(4);
+                Pageable pageable = inv.getArgument(5);
+                return globales.stream()
+                    .filter(g -> !g.getFecha().isBefore(desde) && g.getId() > borradaHasta)
+                    .filter(g -> g.getFecha().isBefore(fecha) || (g.getFecha().equals(fecha) && g.getId() > idAviso))
+                    .sorted(Comparator.comparing(NotificacionGlobal::getFecha).reversed()
+                        .thenComparing(NotificacionGlobal::getId))
+                    .limit(pageable.getPageSize())
+                    .toList();
+            });
+    }
+
+    private LocalDateTime fechaDe(int idFeed) {
+        return idFeed > 0
+            ? propias.stream().filter(n -> n.getId() == idFeed).findFirst().orElseThrow().getFecha()
+            : globales.stream().filter(g -> g.getId() == -idFeed).findFirst().orElseThrow().getFecha();
+    }
+
+    private static Notificacion propia(int id, LocalDateTime fecha) {
+        return Notificacion.builder().id(id).mensaje("propia " + id).fecha(fecha).build();
+    }
+
+    private static NotificacionGlobal global(int id, LocalDateTime fecha) {
+        return NotificacionGlobal.builder().id(id).mensaje("aviso " + id).fecha(fecha).build();
+    }
+}
@@ -0,0 +1,119 @@
+package com.cultivapp.cultivapp.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cultivapp.cultivapp.models.EventoOutbox;
+import com.cultivapp.cultivapp.models.Notificacion;
+import com.cultivapp.cultivapp.models.Usuario;
+import com.cultivapp.cultivapp.models.enums.TipoEventoOutbox;
+import com.cultivapp.cultivapp.repositories.EventoOutboxRepository;
+import com.cultivapp.cultivapp.repositories.UsuarioRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Unit test: despacho del outbox con un evento que siempre falla.
+ *
+ * Qué comprueba: que un evento malo no bloquea el lote. Los demás se despachan uno a
+ * uno, el malo suma un intento por pasada y al agotar max-intentos queda aparcado.
+ * Sin base de datos: repositorios mock y un TransactionTemplate sobre un gestor mock
+ */
+@DisplayName("Outbox: un evento que falla se aísla y se aparca")
+class OutboxServiceTest {
+
+    private static final int USUARIO = 7;
+    private static final String MALO = "malo";
+
+    private final EventoOutboxRepository outboxRepository = mock(EventoOutboxRepository.class);
+    private final NotificacionService notificacionService = mock(NotificacionService.class);
+    private final UsuarioRepository usuarioRepository = mock(UsuarioRepository.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final OutboxService service = new OutboxService(outboxRepository, notificacionService, usuarioRepository,
+        new TransactionTemplate(mock(PlatformTransactionManager.class)), registry, 10, 2);
+
+    private EventoOutbox bueno1;
+    private EventoOutbox malo;
+    private EventoOutbox bueno2;
+
+    @BeforeEach
+    void prepararOutbox() {
+        bueno1 = evento(1L, "Cultivo creado");
+        malo = evento(2L, MALO);
+        bueno2 = evento(3L, "Etapa avanzada");
+        List<EventoOutbox> eventos = List.of(bueno1, malo, bueno2);
+
+        when(outboxRepository.findLoteParaDespachar(anyInt())).thenReturn(eventos);
+        when(outboxRepository.findIdsPendientes(anyInt())).thenReturn(List.of(1L, 2L, 3L));
+        eventos.forEach(e -> {
+            when(outboxRepository.findParaDespachar(e.getId())).thenReturn(Optional.of(e));
+            when(outboxRepository.findById(e.getId())).thenReturn(Optional.of(e));
+        });
+        when(usuarioRepository.findIdsExistentes(any())).thenReturn(List.of(USUARIO));
+        when(usuarioRepository.getReferenceById(USUARIO)).thenReturn(Usuario.builder().id(USUARIO).build());
+
+        // Cualquier escritura que incluya el evento malo falla
+        doAnswer(inv -> {
+            List<Notificacion> notificaciones = inv.getArgument(0);
+            if (notificaciones.stream().anyMatch(n -> MALO.equals(n.getMensaje()))) {
+                throw new IllegalStateException("mensaje inválido");
+            }
+            return null;
+        }).when(notificacionService).createNotificaciones(anyList());
+    }
+
+    @Test
+    @DisplayName("El lote falla: los buenos salen uno a uno y el malo suma un intento")
+    void loteFallidoSeReintentaEventoPorEvento() {
+        int despachados = service.despachar();
+
+        assertEquals(2, despachados);
+        verify(outboxRepository).deleteByIdIn(List.of(1L));
+        verify(outboxRepository).deleteByIdIn(List.of(3L));
+        verify(outboxRepository, never()).deleteByIdIn(List.of(2L));
+        assertEquals(1, malo.getIntentos());
+        assertNotNull(malo.getUltimoError());
+        assertNull(malo.getFechaAparcado(), "Aún le queda un intento");
+    }
+
+    @Test
+    @DisplayName("Al agotar max-intentos el evento queda aparcado y se cuenta")
+    void eventoAparcadoTrasMaxIntentos() {
+        service.despachar();
+        service.despachar();
+
+        assertEquals(2, malo.getIntentos());
+        assertNotNull(malo.getFechaAparcado());
+        assertEquals(1.0, registry.counter("cultivapp.outbox.aparcados").count());
+    }
+
+    private static EventoOutbox evento(Long id, String mensaje) {
+        return EventoOutbox.builder()
+            .id(id)
+            .tipo(TipoEventoOutbox.CULTIVO_CREADO)
+            .usuarioId(USUARIO)
+            .mensaje(mensaje)
+            .fecha(LocalDateTime.now().minusSeconds(5))
+            .build();
+    }
+}